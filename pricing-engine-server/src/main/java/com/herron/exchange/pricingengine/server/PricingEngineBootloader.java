@@ -1,46 +1,54 @@
 package com.herron.exchange.pricingengine.server;
 
+import com.herron.exchange.common.api.common.api.referencedata.instruments.Instrument;
 import com.herron.exchange.common.api.common.bootloader.Bootloader;
 import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
 import com.herron.exchange.common.api.common.enums.KafkaTopicEnum;
-import com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter;
 import com.herron.exchange.common.api.common.kafka.KafkaBroadcastHandler;
 import com.herron.exchange.common.api.common.messages.common.PartitionKey;
 import com.herron.exchange.common.api.common.messages.common.Timestamp;
 import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
 import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
-import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
-import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataPriceRequest;
 import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
 import com.herron.exchange.pricingengine.server.consumers.ReferenceDataConsumer;
 import com.herron.exchange.pricingengine.server.consumers.TopOfBookConsumer;
 import com.herron.exchange.pricingengine.server.consumers.TradeDataConsumer;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataRecalibrator;
 import com.herron.exchange.pricingengine.server.marketdata.MarketDataService;
 import com.herron.exchange.pricingengine.server.theoretical.TheoreticalPriceCalculator;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static com.herron.exchange.common.api.common.enums.PriceType.THEORETICAL;
 import static com.herron.exchange.common.api.common.enums.Status.ERROR;
-import static com.herron.exchange.common.api.common.enums.Status.OK;
 
 public class PricingEngineBootloader extends Bootloader {
     public static final PartitionKey PREVIOUS_SETTLEMENT_PRICE_KEY = new PartitionKey(KafkaTopicEnum.PREVIOUS_SETTLEMENT_PRICE_DATA, 0);
+    private final PricingEngine pricingEngine;
     private final MarketDataService marketDataService;
+    private final MarketDataRecalibrator marketDataRecalibrator;
     private final TheoreticalPriceCalculator theoreticalPriceCalculator;
     private final KafkaBroadcastHandler kafkaBroadcastHandler;
     private final ReferenceDataConsumer referenceDataConsumer;
     private final TopOfBookConsumer topOfBookConsumer;
     private final TradeDataConsumer tradeDataConsumer;
 
-    public PricingEngineBootloader(MarketDataService marketDataService,
+    public PricingEngineBootloader(PricingEngine pricingEngine,
+                                   MarketDataService marketDataService,
+                                   MarketDataRecalibrator marketDataRecalibrator,
                                    TheoreticalPriceCalculator theoreticalPriceCalculator,
                                    KafkaBroadcastHandler kafkaBroadcastHandler,
                                    ReferenceDataConsumer referenceDataConsumer,
                                    TopOfBookConsumer topOfBookConsumer,
                                    TradeDataConsumer tradeDataConsumer) {
         super("Pricing-Engine");
+        this.pricingEngine = pricingEngine;
         this.marketDataService = marketDataService;
+        this.marketDataRecalibrator = marketDataRecalibrator;
         this.theoreticalPriceCalculator = theoreticalPriceCalculator;
         this.kafkaBroadcastHandler = kafkaBroadcastHandler;
         this.referenceDataConsumer = referenceDataConsumer;
@@ -53,25 +61,30 @@ public class PricingEngineBootloader extends Bootloader {
         referenceDataConsumer.init();
         referenceDataConsumer.await();
         marketDataService.init();
+        marketDataRecalibrator.init();
         broadcastPreviousDaySettlement();
+        pricingEngine.init();
         topOfBookConsumer.init();
         tradeDataConsumer.init();
         bootloaderComplete();
     }
 
     private void broadcastPreviousDaySettlement() {
+        Map<LocalDate, List<Instrument>> previousTradingDateToInstruments = new HashMap<>();
         for (var instrument : ReferenceDataCache.getCache().getInstruments()) {
             var previousTradingDate = instrument.product().businessCalendar().getFirstDateBeforeHoliday(LocalDate.now());
-            var request = ImmutableMarketDataPriceRequest.builder()
-                    .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrument.instrumentId()).build())
-                    .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(previousTradingDate)).build())
-                    .timeFilter(MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR)
-                    .build();
-            var response = marketDataService.getMarketDataPrice(request);
-            MarketDataPrice marketDataPrice;
-            if (response.status() == OK) {
-                marketDataPrice = response.marketDataPrice();
-            } else {
+            previousTradingDateToInstruments.computeIfAbsent(previousTradingDate, k -> new ArrayList<>()).add(instrument);
+        }
+        previousTradingDateToInstruments.forEach(this::broadcastPreviousDaySettlement);
+        kafkaBroadcastHandler.endBroadCast(PREVIOUS_SETTLEMENT_PRICE_KEY);
+    }
+
+    private void broadcastPreviousDaySettlement(LocalDate previousTradingDate, List<Instrument> instruments) {
+        var instrumentIds = instruments.stream().map(Instrument::instrumentId).toList();
+        var instrumentIdToPrice = marketDataService.getMarketDataPrices(instrumentIds, Timestamp.from(previousTradingDate));
+        for (var instrument : instruments) {
+            var marketDataPrice = instrumentIdToPrice.get(instrument.instrumentId());
+            if (marketDataPrice == null) {
                 var result = theoreticalPriceCalculator.calculatePrice(instrument, Timestamp.now());
                 if (result.status() == ERROR) {
                     continue;
@@ -90,6 +103,5 @@ public class PricingEngineBootloader extends Bootloader {
 
             kafkaBroadcastHandler.broadcastMessage(PREVIOUS_SETTLEMENT_PRICE_KEY, marketDataPrice);
         }
-        kafkaBroadcastHandler.endBroadCast(PREVIOUS_SETTLEMENT_PRICE_KEY);
     }
 }
@@ -0,0 +1,42 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of a journal checkpoint marking that all data of a source has been written, no fixed block.
+ * <pre>
+ * 0  source  uint16 length followed by UTF-8 bytes
+ * </pre>
+ */
+public final class JournalCheckpointCodec {
+    public static final int TEMPLATE_ID = 3;
+    public static final int BLOCK_LENGTH = 0;
+    private static final int VAR_LENGTH_HEADER = 2;
+
+    private JournalCheckpointCodec() {
+    }
+
+    public static byte[] encode(String source) {
+        byte[] sourceBytes = source.getBytes(StandardCharsets.UTF_8);
+        if (sourceBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException(String.format("Source of %s bytes is too long to encode.", sourceBytes.length));
+        }
+        byte[] bytes = new byte[MessageHeader.ENCODED_LENGTH + VAR_LENGTH_HEADER + sourceBytes.length];
+        var buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        MessageHeader.encode(buffer, 0, BLOCK_LENGTH, TEMPLATE_ID);
+        buffer.putShort(MessageHeader.ENCODED_LENGTH, (short) sourceBytes.length);
+        buffer.put(MessageHeader.ENCODED_LENGTH + VAR_LENGTH_HEADER, sourceBytes);
+        return bytes;
+    }
+
+    /**
+     * Decodes the source of a checkpoint entry without header at the offset, the buffer must be little endian.
+     */
+    public static String decodeSource(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(offset))];
+        buffer.get(offset + VAR_LENGTH_HEADER, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,60 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static com.herron.exchange.pricingengine.server.utils.TimestampUtils.toEpochMs;
+
+/**
+ * Binary layout of a {@link MarketDataPrice}, a fixed block followed by the instrument id as variable length data.
+ * <pre>
+ * 0   timeOfEventMs  int64   epoch milliseconds, sub-millisecond precision of the event time is dropped
+ * 8   price          double
+ * 16  priceType      uint8   ordinal of the price type
+ * 17  instrumentId   uint16 length followed by UTF-8 bytes
+ * </pre>
+ */
+public final class MarketDataPriceCodec {
+    public static final int TEMPLATE_ID = 1;
+    public static final int BLOCK_LENGTH = 17;
+    static final int TIME_OF_EVENT_OFFSET = 0;
+    static final int PRICE_OFFSET = 8;
+    static final int PRICE_TYPE_OFFSET = 16;
+    static final int VAR_LENGTH_HEADER = 2;
+
+    private MarketDataPriceCodec() {
+    }
+
+    public static byte[] encode(MarketDataPrice price) {
+        byte[] instrumentId = instrumentIdBytes(price);
+        byte[] bytes = new byte[MessageHeader.ENCODED_LENGTH + entryLength(instrumentId)];
+        var buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        MessageHeader.encode(buffer, 0, BLOCK_LENGTH, TEMPLATE_ID);
+        encodeEntry(buffer, MessageHeader.ENCODED_LENGTH, price, instrumentId);
+        return bytes;
+    }
+
+    static byte[] instrumentIdBytes(MarketDataPrice price) {
+        byte[] instrumentId = price.staticKey().instrumentId().getBytes(StandardCharsets.UTF_8);
+        if (instrumentId.length > 0xFFFF) {
+            throw new IllegalArgumentException(String.format("Instrument id of %s bytes is too long to encode.", instrumentId.length));
+        }
+        return instrumentId;
+    }
+
+    static int entryLength(byte[] instrumentId) {
+        return BLOCK_LENGTH + VAR_LENGTH_HEADER + instrumentId.length;
+    }
+
+    static int encodeEntry(ByteBuffer buffer, int offset, MarketDataPrice price, byte[] instrumentId) {
+        buffer.putLong(offset + TIME_OF_EVENT_OFFSET, toEpochMs(price.timeComponentKey().timeOfEvent()));
+        buffer.putDouble(offset + PRICE_OFFSET, price.price().getRealValue());
+        buffer.put(offset + PRICE_TYPE_OFFSET, (byte) price.priceType().ordinal());
+        buffer.putShort(offset + BLOCK_LENGTH, (short) instrumentId.length);
+        buffer.put(offset + BLOCK_LENGTH + VAR_LENGTH_HEADER, instrumentId);
+        return entryLength(instrumentId);
+    }
+}
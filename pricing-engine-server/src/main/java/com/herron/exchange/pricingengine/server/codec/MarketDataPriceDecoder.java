@@ -0,0 +1,81 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+import com.herron.exchange.common.api.common.enums.PriceType;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static com.herron.exchange.pricingengine.server.codec.MarketDataPriceCodec.*;
+
+/**
+ * Flyweight over an encoded price. Fields are read straight from the buffer on access, nothing is copied or allocated
+ * until the instrument id or a full {@link MarketDataPrice} is requested. Can be re-wrapped to read the next price.
+ */
+public class MarketDataPriceDecoder {
+    private static final PriceType[] PRICE_TYPES = PriceType.values();
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Wraps a message starting with a {@link MessageHeader}.
+     */
+    public MarketDataPriceDecoder wrapMessage(byte[] bytes) {
+        var message = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        MessageHeader.verify(message, 0, TEMPLATE_ID);
+        return wrap(message, MessageHeader.ENCODED_LENGTH);
+    }
+
+    /**
+     * Wraps an entry without header at the offset, the buffer must be little endian.
+     */
+    public MarketDataPriceDecoder wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public long timeOfEventMs() {
+        return buffer.getLong(offset + TIME_OF_EVENT_OFFSET);
+    }
+
+    public double price() {
+        return buffer.getDouble(offset + PRICE_OFFSET);
+    }
+
+    public PriceType priceType() {
+        return PRICE_TYPES[Byte.toUnsignedInt(buffer.get(offset + PRICE_TYPE_OFFSET))];
+    }
+
+    public int instrumentIdLength() {
+        return Short.toUnsignedInt(buffer.getShort(offset + BLOCK_LENGTH));
+    }
+
+    public String instrumentId() {
+        byte[] bytes = new byte[instrumentIdLength()];
+        buffer.get(offset + BLOCK_LENGTH + VAR_LENGTH_HEADER, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Length of the wrapped entry, used to step to the next entry in a group.
+     */
+    public int encodedLength() {
+        return BLOCK_LENGTH + VAR_LENGTH_HEADER + instrumentIdLength();
+    }
+
+    public MarketDataPrice toMarketDataPrice() {
+        return ImmutableMarketDataPrice.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrumentId()).build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(timeOfEventMs())).build())
+                .price(Price.create(price()))
+                .priceType(priceType())
+                .build();
+    }
+}
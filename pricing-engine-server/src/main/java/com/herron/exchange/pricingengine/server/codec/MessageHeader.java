@@ -0,0 +1,51 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed size header in front of every binary message, all fields are little endian unsigned shorts.
+ * <pre>
+ * 0  blockLength  length of the fixed block following the header
+ * 2  templateId   message type
+ * 4  schemaId     schema the template belongs to
+ * 6  version      schema version the message was encoded with
+ * </pre>
+ */
+public final class MessageHeader {
+    public static final int ENCODED_LENGTH = 8;
+    public static final int SCHEMA_ID = 1;
+    public static final int SCHEMA_VERSION = 1;
+
+    private MessageHeader() {
+    }
+
+    static void encode(ByteBuffer buffer, int offset, int blockLength, int templateId) {
+        buffer.putShort(offset, (short) blockLength);
+        buffer.putShort(offset + 2, (short) templateId);
+        buffer.putShort(offset + 4, (short) SCHEMA_ID);
+        buffer.putShort(offset + 6, (short) SCHEMA_VERSION);
+    }
+
+    public static int blockLength(ByteBuffer buffer, int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset));
+    }
+
+    public static int templateId(ByteBuffer buffer, int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset + 2));
+    }
+
+    public static int schemaId(ByteBuffer buffer, int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset + 4));
+    }
+
+    public static int version(ByteBuffer buffer, int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset + 6));
+    }
+
+    static void verify(ByteBuffer buffer, int offset, int expectedTemplateId) {
+        if (schemaId(buffer, offset) != SCHEMA_ID || templateId(buffer, offset) != expectedTemplateId) {
+            throw new IllegalArgumentException(String.format("Unexpected message schema %s template %s, expected schema %s template %s.",
+                    schemaId(buffer, offset), templateId(buffer, offset), SCHEMA_ID, expectedTemplateId));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+import com.herron.exchange.pricingengine.server.publisher.RealTimePriceBatch;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.herron.exchange.pricingengine.server.utils.TimestampUtils.toEpochMs;
+
+/**
+ * Binary layout of a {@link RealTimePriceBatch}, a fixed block followed by a repeating group of prices.
+ * <pre>
+ * 0   batchId        int64
+ * 8   timeOfEventMs  int64   epoch milliseconds
+ * 16  group header   uint16 entry block length, uint16 number of entries
+ * 20  entries        see {@link MarketDataPriceCodec}
+ * </pre>
+ */
+public final class RealTimePriceBatchCodec {
+    public static final int TEMPLATE_ID = 2;
+    public static final int BLOCK_LENGTH = 16;
+    static final int GROUP_HEADER_LENGTH = 4;
+    static final int MAX_GROUP_SIZE = 0xFFFF;
+
+    private RealTimePriceBatchCodec() {
+    }
+
+    public static byte[] encode(RealTimePriceBatch batch) {
+        var prices = batch.prices();
+        if (prices.size() > MAX_GROUP_SIZE) {
+            throw new IllegalArgumentException(String.format("Batch of %s prices exceeds the max group size %s.", prices.size(), MAX_GROUP_SIZE));
+        }
+        byte[][] instrumentIds = new byte[prices.size()][];
+        int length = MessageHeader.ENCODED_LENGTH + BLOCK_LENGTH + GROUP_HEADER_LENGTH;
+        for (int i = 0; i < prices.size(); i++) {
+            instrumentIds[i] = MarketDataPriceCodec.instrumentIdBytes(prices.get(i));
+            length += MarketDataPriceCodec.entryLength(instrumentIds[i]);
+        }
+
+        byte[] bytes = new byte[length];
+        var buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        MessageHeader.encode(buffer, 0, BLOCK_LENGTH, TEMPLATE_ID);
+        int offset = MessageHeader.ENCODED_LENGTH;
+        buffer.putLong(offset, batch.batchId());
+        buffer.putLong(offset + 8, toEpochMs(batch.timeOfEvent()));
+        offset += BLOCK_LENGTH;
+        buffer.putShort(offset, (short) MarketDataPriceCodec.BLOCK_LENGTH);
+        buffer.putShort(offset + 2, (short) prices.size());
+        offset += GROUP_HEADER_LENGTH;
+        for (int i = 0; i < prices.size(); i++) {
+            offset += MarketDataPriceCodec.encodeEntry(buffer, offset, prices.get(i), instrumentIds[i]);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,66 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.pricingengine.server.publisher.RealTimePriceBatch;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.herron.exchange.pricingengine.server.codec.RealTimePriceBatchCodec.GROUP_HEADER_LENGTH;
+import static com.herron.exchange.pricingengine.server.codec.RealTimePriceBatchCodec.TEMPLATE_ID;
+
+/**
+ * Flyweight over an encoded batch, iterate the prices with {@link #hasNext()} and {@link #next()}. The returned
+ * price decoder is reused for every entry.
+ */
+public class RealTimePriceBatchDecoder {
+    private final MarketDataPriceDecoder priceDecoder = new MarketDataPriceDecoder();
+    private ByteBuffer buffer;
+    private int count;
+    private int index;
+    private int nextOffset;
+
+    public RealTimePriceBatchDecoder wrap(byte[] bytes) {
+        this.buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        MessageHeader.verify(buffer, 0, TEMPLATE_ID);
+        int groupOffset = MessageHeader.ENCODED_LENGTH + MessageHeader.blockLength(buffer, 0);
+        this.count = Short.toUnsignedInt(buffer.getShort(groupOffset + 2));
+        this.index = 0;
+        this.nextOffset = groupOffset + GROUP_HEADER_LENGTH;
+        return this;
+    }
+
+    public long batchId() {
+        return buffer.getLong(MessageHeader.ENCODED_LENGTH);
+    }
+
+    public long timeOfEventMs() {
+        return buffer.getLong(MessageHeader.ENCODED_LENGTH + 8);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean hasNext() {
+        return index < count;
+    }
+
+    public MarketDataPriceDecoder next() {
+        priceDecoder.wrap(buffer, nextOffset);
+        nextOffset += priceDecoder.encodedLength();
+        index++;
+        return priceDecoder;
+    }
+
+    public RealTimePriceBatch toBatch() {
+        List<MarketDataPrice> prices = new ArrayList<>(count);
+        while (hasNext()) {
+            prices.add(next().toMarketDataPrice());
+        }
+        return new RealTimePriceBatch(batchId(), Timestamp.from(timeOfEventMs()), prices);
+    }
+}
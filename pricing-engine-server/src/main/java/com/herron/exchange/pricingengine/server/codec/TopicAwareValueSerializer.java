@@ -0,0 +1,58 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+import com.herron.exchange.pricingengine.server.publisher.RealTimePriceBatch;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Value serializer which writes {@link RealTimePriceBatch}es in the binary format on the topics configured with
+ * {@link WireEncoding#BINARY} and falls back to the {@link JsonSerializer} for every other topic and message type.
+ * Binary topics still carry the JSON broadcast envelopes of the broadcast handler, so a binary record is marked with
+ * the {@link #CONTENT_TYPE_HEADER} for consumers to tell the two apart, and is never written without headers.
+ */
+public class TopicAwareValueSerializer implements Serializer<Object> {
+    public static final String BINARY_TOPICS_CONFIG = "pricing-engine.binary-topics";
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String BINARY_CONTENT_TYPE = "application/x-herron-binary";
+    private static final byte[] BINARY_CONTENT_TYPE_BYTES = BINARY_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private Set<String> binaryTopics = Set.of();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+        var topics = configs.get(BINARY_TOPICS_CONFIG);
+        if (topics instanceof Collection<?> collection) {
+            binaryTopics = collection.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+        } else if (topics instanceof String value && !value.isBlank()) {
+            binaryTopics = Arrays.stream(value.split(",")).map(String::trim).collect(Collectors.toUnmodifiableSet());
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data instanceof RealTimePriceBatch batch && binaryTopics.contains(topic)) {
+            headers.add(CONTENT_TYPE_HEADER, BINARY_CONTENT_TYPE_BYTES);
+            return RealTimePriceBatchCodec.encode(batch);
+        }
+        return jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
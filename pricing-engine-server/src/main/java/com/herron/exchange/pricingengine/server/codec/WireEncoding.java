@@ -0,0 +1,6 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+public enum WireEncoding {
+    JSON,
+    BINARY
+}
@@ -0,0 +1,77 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+import com.herron.exchange.pricingengine.server.marketdata.external.YieldCurvePoints;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Binary layout of the {@link YieldCurvePoints} of a curve, a fixed block followed by the points and the curve id.
+ * <pre>
+ * 0   startDate      int64   epoch day
+ * 8   nrOfPoints     uint16
+ * 10  maturityDates  nrOfPoints int64 epoch days
+ *     yields         nrOfPoints doubles
+ *     curveId        uint16 length followed by UTF-8 bytes
+ * </pre>
+ */
+public final class YieldCurvePointsCodec {
+    public static final int TEMPLATE_ID = 4;
+    public static final int BLOCK_LENGTH = 10;
+    static final int START_DATE_OFFSET = 0;
+    static final int NR_OF_POINTS_OFFSET = 8;
+    private static final int VAR_LENGTH_HEADER = 2;
+
+    private YieldCurvePointsCodec() {
+    }
+
+    public static byte[] encode(YieldCurvePoints points) {
+        byte[] curveId = points.curveId().getBytes(StandardCharsets.UTF_8);
+        if (curveId.length > 0xFFFF || points.nrOfPoints() > 0xFFFF) {
+            throw new IllegalArgumentException(String.format("Curve %s is too large to encode.", points.curveId()));
+        }
+        int curveIdOffset = MessageHeader.ENCODED_LENGTH + BLOCK_LENGTH + points.nrOfPoints() * (Long.BYTES + Double.BYTES);
+        byte[] bytes = new byte[curveIdOffset + VAR_LENGTH_HEADER + curveId.length];
+        var buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        MessageHeader.encode(buffer, 0, BLOCK_LENGTH, TEMPLATE_ID);
+        int offset = MessageHeader.ENCODED_LENGTH;
+        buffer.putLong(offset + START_DATE_OFFSET, points.startDate().toEpochDay());
+        buffer.putShort(offset + NR_OF_POINTS_OFFSET, (short) points.nrOfPoints());
+        offset += BLOCK_LENGTH;
+        for (var maturityDate : points.maturityDates()) {
+            buffer.putLong(offset, maturityDate.toEpochDay());
+            offset += Long.BYTES;
+        }
+        for (double yield : points.yields()) {
+            buffer.putDouble(offset, yield);
+            offset += Double.BYTES;
+        }
+        buffer.putShort(offset, (short) curveId.length);
+        buffer.put(offset + VAR_LENGTH_HEADER, curveId);
+        return bytes;
+    }
+
+    /**
+     * Decodes the points of a curve entry without header at the offset, the buffer must be little endian.
+     */
+    public static YieldCurvePoints decode(ByteBuffer buffer, int offset) {
+        var startDate = LocalDate.ofEpochDay(buffer.getLong(offset + START_DATE_OFFSET));
+        int nrOfPoints = Short.toUnsignedInt(buffer.getShort(offset + NR_OF_POINTS_OFFSET));
+        offset += BLOCK_LENGTH;
+        LocalDate[] maturityDates = new LocalDate[nrOfPoints];
+        for (int i = 0; i < nrOfPoints; i++) {
+            maturityDates[i] = LocalDate.ofEpochDay(buffer.getLong(offset));
+            offset += Long.BYTES;
+        }
+        double[] yields = new double[nrOfPoints];
+        for (int i = 0; i < nrOfPoints; i++) {
+            yields[i] = buffer.getDouble(offset);
+            offset += Double.BYTES;
+        }
+        byte[] curveId = new byte[Short.toUnsignedInt(buffer.getShort(offset))];
+        buffer.get(offset + VAR_LENGTH_HEADER, curveId);
+        return new YieldCurvePoints(new String(curveId, StandardCharsets.UTF_8), startDate, maturityDates, yields);
+    }
+}
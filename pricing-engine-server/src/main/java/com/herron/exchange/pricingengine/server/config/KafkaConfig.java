@@ -7,6 +7,8 @@ import com.herron.exchange.common.api.common.kafka.KafkaBroadcastProducer;
 import com.herron.exchange.common.api.common.kafka.KafkaConsumerClient;
 import com.herron.exchange.common.api.common.kafka.model.KafkaSubscriptionDetails;
 import com.herron.exchange.common.api.common.messages.common.PartitionKey;
+import com.herron.exchange.pricingengine.server.codec.TopicAwareValueSerializer;
+import com.herron.exchange.pricingengine.server.codec.WireEncoding;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -18,12 +20,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Configuration
@@ -50,11 +52,12 @@ public class KafkaConfig {
     }
 
     @Bean
-    public ProducerFactory<String, Object> producerFactory(@Value("${kafka.bootstrap-servers}") String bootstrapServers) {
+    public ProducerFactory<String, Object> producerFactory(@Value("${kafka.bootstrap-servers}") String bootstrapServers, KafkaConfig.KafkaProducerConfig config) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, TopicAwareValueSerializer.class);
+        configProps.put(TopicAwareValueSerializer.BINARY_TOPICS_CONFIG, config.getBinaryTopics());
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
@@ -93,6 +96,14 @@ public class KafkaConfig {
             this.config = config;
         }
 
+        List<String> getBinaryTopics() {
+            return config.stream()
+                    .filter(c -> c.encoding() == WireEncoding.BINARY)
+                    .map(KafkaTopicConfig::topic)
+                    .distinct()
+                    .toList();
+        }
+
         Map<PartitionKey, KafkaBroadcastProducer> createBroadcastProducer(KafkaTemplate<String, Object> kafkaTemplate) {
             return config.stream()
                     .map(c -> {
@@ -104,13 +115,15 @@ public class KafkaConfig {
 
         public record KafkaTopicConfig(int partition,
                                        int eventLogging,
-                                       String topic) {
+                                       String topic,
+                                       WireEncoding encoding) {
         }
     }
 
     @Component
     @ConfigurationProperties(prefix = "kafka.consumer")
     public static class KafkaConsumerConfig {
+        private static final Set<KafkaTopicEnum> SINGLE_PRODUCER_TOPICS = Set.of(KafkaTopicEnum.TRADE_DATA, KafkaTopicEnum.TOP_OF_BOOK_QUOTE);
 
         private List<KafkaTopicConfig> config;
 
@@ -122,11 +135,19 @@ public class KafkaConfig {
             this.config = config;
         }
 
+        /**
+         * Trades and quotes are fed into single producer queues of the snapshot workers, every partition is consumed on
+         * its own listener thread so these topics are limited to one partition.
+         */
         List<KafkaSubscriptionDetails> getDetails(KafkaTopicEnum topicEnum) {
-            return config.stream()
+            var details = config.stream()
                     .filter(c -> c.topic.equals(topicEnum.getTopicName()))
                     .map(c -> new KafkaSubscriptionDetails(GROUP_ID, new PartitionKey(topicEnum, c.partition), c.offset, c.eventLogging))
                     .toList();
+            if (SINGLE_PRODUCER_TOPICS.contains(topicEnum) && details.size() > 1) {
+                throw new IllegalArgumentException(String.format("Topic %s feeds single producer queues and must be consumed from one partition, found %s.", topicEnum.getTopicName(), details.size()));
+            }
+            return details;
         }
 
         public record KafkaTopicConfig(int offset,
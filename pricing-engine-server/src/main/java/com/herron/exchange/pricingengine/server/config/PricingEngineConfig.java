@@ -13,17 +13,51 @@ import com.herron.exchange.pricingengine.server.PricingEngineBootloader;
 import com.herron.exchange.pricingengine.server.consumers.ReferenceDataConsumer;
 import com.herron.exchange.pricingengine.server.consumers.TopOfBookConsumer;
 import com.herron.exchange.pricingengine.server.consumers.TradeDataConsumer;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataCompactor;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataEntryType;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataRecalibrator;
 import com.herron.exchange.pricingengine.server.marketdata.MarketDataService;
+import com.herron.exchange.pricingengine.server.marketdata.RetentionPolicy;
 import com.herron.exchange.pricingengine.server.marketdata.external.ExternalMarketDataHandler;
 import com.herron.exchange.pricingengine.server.marketdata.external.eurex.EurexPreviousDaySettlementHandler;
 import com.herron.exchange.pricingengine.server.marketdata.external.nasdaq.NasdaqYieldCurveHandler;
+import com.herron.exchange.pricingengine.server.marketdata.journal.MarketDataJournal;
+import com.herron.exchange.pricingengine.server.marketdata.journal.MemoryMappedMarketDataJournal;
+import com.herron.exchange.pricingengine.server.publisher.BatchingPricePublisher;
+import com.herron.exchange.pricingengine.server.publisher.BroadcastPricePublisher;
+import com.herron.exchange.pricingengine.server.publisher.PricePublisher;
+import com.herron.exchange.pricingengine.server.rest.MarketDataMetricsController;
+import com.herron.exchange.pricingengine.server.rest.PricePublisherMetricsController;
+import com.herron.exchange.pricingengine.server.rest.SnapshotMetricsController;
+import com.herron.exchange.pricingengine.server.rest.TheoreticalPriceMetricsController;
+import com.herron.exchange.pricingengine.server.snapshot.PriceSnapshotHandler;
+import com.herron.exchange.pricingengine.server.snapshot.PriceSnapshotSettings;
+import com.herron.exchange.pricingengine.server.snapshot.SnapshotWorkerPool;
+import com.herron.exchange.pricingengine.server.snapshot.ThrottleSettings;
+import com.herron.exchange.pricingengine.server.snapshot.queue.WaitStrategy;
+import com.herron.exchange.pricingengine.server.snapshot.timer.HashedWheelTimer;
+import com.herron.exchange.pricingengine.server.theoretical.TabulatedYieldCurveCache;
+import com.herron.exchange.pricingengine.server.theoretical.TabulatedYieldCurveSettings;
 import com.herron.exchange.pricingengine.server.theoretical.TheoreticalPriceCalculator;
 import com.herron.exchange.pricingengine.server.theoretical.derivatives.futures.FuturesCalculator;
+import com.herron.exchange.pricingengine.server.theoretical.derivatives.options.ImpliedVolatilityGridSettings;
 import com.herron.exchange.pricingengine.server.theoretical.derivatives.options.OptionCalculator;
 import com.herron.exchange.pricingengine.server.theoretical.fixedincome.bonds.BondPriceCalculator;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static com.herron.exchange.common.api.common.enums.KafkaTopicEnum.*;
 
@@ -36,17 +70,72 @@ public class PricingEngineConfig {
     }
 
     @Bean
-    public TheoreticalPriceCalculator theoreticalPriceCalculator(MarketDataService marketDataService) {
+    public TabulatedYieldCurveCache tabulatedYieldCurveCache(TheoreticalPriceConfig config) {
+        return new TabulatedYieldCurveCache(config.getYieldCurveTable().toSettings());
+    }
+
+    @Bean
+    public TheoreticalPriceCalculator theoreticalPriceCalculator(MarketDataService marketDataService,
+                                                                 TabulatedYieldCurveCache tabulatedYieldCurveCache,
+                                                                 TheoreticalPriceConfig config) {
         return new TheoreticalPriceCalculator(
                 new BondPriceCalculator(marketDataService),
-                new OptionCalculator(marketDataService),
+                new OptionCalculator(marketDataService, config.getIvGrid().toSettings(), tabulatedYieldCurveCache),
                 new FuturesCalculator(marketDataService)
         );
     }
 
     @Bean
-    public PricingEngine pricingEngine(KafkaBroadcastHandler broadcastHandler, TheoreticalPriceCalculator theoreticalPriceCalculator) {
-        return new PricingEngine(broadcastHandler, theoreticalPriceCalculator);
+    public TheoreticalPriceMetricsController theoreticalPriceMetricsController(TheoreticalPriceCalculator theoreticalPriceCalculator) {
+        return new TheoreticalPriceMetricsController(theoreticalPriceCalculator);
+    }
+
+    @Bean
+    public PricePublisher pricePublisher(KafkaBroadcastHandler broadcastHandler,
+                                         KafkaTemplate<String, Object> kafkaTemplate,
+                                         PricePublisherConfig config) {
+        if (!config.isBatching()) {
+            return new BroadcastPricePublisher(broadcastHandler, PriceSnapshotHandler.REAL_TIME_PRICE_KEY);
+        }
+        return new BatchingPricePublisher(
+                batch -> kafkaTemplate.send(REAL_TIME_PRICES.getTopicName(), config.getPartition(), null, batch),
+                config.getMaxBatchSize(),
+                config.getLinger(),
+                config.getQueueCapacity()
+        );
+    }
+
+    @Bean
+    public PricePublisherMetricsController pricePublisherMetricsController(PricePublisher pricePublisher) {
+        return new PricePublisherMetricsController(pricePublisher);
+    }
+
+    @Bean
+    public SnapshotWorkerPool snapshotWorkerPool(PricePublisher pricePublisher,
+                                                 MarketDataService marketDataService,
+                                                 TheoreticalPriceCalculator theoreticalPriceCalculator,
+                                                 PriceSnapshotConfig config) {
+        return new SnapshotWorkerPool(
+                config.getNrOfWorkers(),
+                pricePublisher,
+                marketDataService,
+                theoreticalPriceCalculator,
+                config.createSettings(),
+                new HashedWheelTimer("Snapshot-Flush-Timer", config.getFlushTimerTick().toMillis(), TimeUnit.MILLISECONDS, config.getFlushTimerWheelSize()),
+                config.getRingBufferSize(),
+                config.getWaitStrategy(),
+                config.isConflateQuotes()
+        );
+    }
+
+    @Bean
+    public SnapshotMetricsController snapshotMetricsController(SnapshotWorkerPool snapshotWorkerPool) {
+        return new SnapshotMetricsController(snapshotWorkerPool);
+    }
+
+    @Bean
+    public PricingEngine pricingEngine(SnapshotWorkerPool snapshotWorkerPool) {
+        return new PricingEngine(snapshotWorkerPool);
     }
 
     @Bean
@@ -88,9 +177,32 @@ public class PricingEngineConfig {
         return new ExternalMarketDataHandler(eurexPreviousDaySettlementHandler, nasdaqYieldCurveHandler);
     }
 
+    @Bean(destroyMethod = "stop")
+    public MarketDataService marketDataService(ExternalMarketDataHandler externalMarketDataHandler, MarketDataJournal marketDataJournal, MarketDataConfig config) {
+        return new MarketDataService(externalMarketDataHandler, config.createRetentionPolicies(), marketDataJournal, config.getSurfaceConstructionParallelism());
+    }
+
+    @Bean(destroyMethod = "close")
+    public MarketDataJournal marketDataJournal(MarketDataConfig config) {
+        if (config.getJournalDirectory() == null || config.getJournalDirectory().isBlank()) {
+            return MarketDataJournal.NONE;
+        }
+        return new MemoryMappedMarketDataJournal(Path.of(config.getJournalDirectory()), LocalDate::now, config.getJournalCapacityMb() * 1024 * 1024);
+    }
+
+    @Bean(initMethod = "init", destroyMethod = "stop")
+    public MarketDataCompactor marketDataCompactor(MarketDataService marketDataService, MarketDataConfig config) {
+        return new MarketDataCompactor(marketDataService, config.getCompactionInterval());
+    }
+
+    @Bean(destroyMethod = "stop")
+    public MarketDataRecalibrator marketDataRecalibrator(MarketDataService marketDataService, MarketDataConfig config) {
+        return new MarketDataRecalibrator(marketDataService, config.getRecalibrationThreshold(), config.getRecalibrationInterval());
+    }
+
     @Bean
-    public MarketDataService marketDataService(ExternalMarketDataHandler externalMarketDataHandler) {
-        return new MarketDataService(externalMarketDataHandler);
+    public MarketDataMetricsController marketDataMetricsController(MarketDataService marketDataService) {
+        return new MarketDataMetricsController(marketDataService);
     }
 
     @Bean
@@ -109,12 +221,415 @@ public class PricingEngineConfig {
     }
 
     @Bean(initMethod = "init")
-    public PricingEngineBootloader pricingEngineBootloader(KafkaBroadcastHandler kafkaBroadcastHandler,
+    public PricingEngineBootloader pricingEngineBootloader(PricingEngine pricingEngine,
+                                                           KafkaBroadcastHandler kafkaBroadcastHandler,
                                                            TheoreticalPriceCalculator theoreticalPriceCalculator,
                                                            MarketDataService marketDataService,
+                                                           MarketDataRecalibrator marketDataRecalibrator,
                                                            ReferenceDataConsumer referenceDataConsumer,
                                                            TradeDataConsumer tradeDataConsumer,
                                                            TopOfBookConsumer topOfBookConsumer) {
-        return new PricingEngineBootloader(marketDataService, theoreticalPriceCalculator, kafkaBroadcastHandler, referenceDataConsumer, topOfBookConsumer, tradeDataConsumer);
+        return new PricingEngineBootloader(pricingEngine, marketDataService, marketDataRecalibrator, theoreticalPriceCalculator, kafkaBroadcastHandler, referenceDataConsumer, topOfBookConsumer, tradeDataConsumer);
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "pricing-engine.snapshot")
+    public static class PriceSnapshotConfig {
+
+        private int nrOfWorkers = 0;
+        private int ringBufferSize = 16384;
+        private WaitStrategy waitStrategy = WaitStrategy.YIELD;
+        private boolean conflateQuotes = true;
+        private Duration vwapWindow = Duration.ZERO;
+        private Map<String, Duration> vwapWindowOverrides = new HashMap<>();
+        private int nrOfWindowBuckets = 60;
+        private ThrottleConfig throttle = new ThrottleConfig();
+        private Map<String, ThrottleConfig> throttleOverrides = new HashMap<>();
+        private Duration flushTimerTick = Duration.ofMillis(10);
+        private int flushTimerWheelSize = 512;
+        private Duration theoreticalMaxStaleness = Duration.ofSeconds(1);
+
+        public int getNrOfWorkers() {
+            return nrOfWorkers;
+        }
+
+        public void setNrOfWorkers(int nrOfWorkers) {
+            this.nrOfWorkers = nrOfWorkers;
+        }
+
+        public int getRingBufferSize() {
+            return ringBufferSize;
+        }
+
+        public void setRingBufferSize(int ringBufferSize) {
+            this.ringBufferSize = ringBufferSize;
+        }
+
+        public WaitStrategy getWaitStrategy() {
+            return waitStrategy;
+        }
+
+        public void setWaitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+        }
+
+        public boolean isConflateQuotes() {
+            return conflateQuotes;
+        }
+
+        public void setConflateQuotes(boolean conflateQuotes) {
+            this.conflateQuotes = conflateQuotes;
+        }
+
+        public Duration getVwapWindow() {
+            return vwapWindow;
+        }
+
+        public void setVwapWindow(Duration vwapWindow) {
+            this.vwapWindow = vwapWindow;
+        }
+
+        public Map<String, Duration> getVwapWindowOverrides() {
+            return vwapWindowOverrides;
+        }
+
+        public void setVwapWindowOverrides(Map<String, Duration> vwapWindowOverrides) {
+            this.vwapWindowOverrides = vwapWindowOverrides;
+        }
+
+        public int getNrOfWindowBuckets() {
+            return nrOfWindowBuckets;
+        }
+
+        public void setNrOfWindowBuckets(int nrOfWindowBuckets) {
+            this.nrOfWindowBuckets = nrOfWindowBuckets;
+        }
+
+        public ThrottleConfig getThrottle() {
+            return throttle;
+        }
+
+        public void setThrottle(ThrottleConfig throttle) {
+            this.throttle = throttle;
+        }
+
+        public Map<String, ThrottleConfig> getThrottleOverrides() {
+            return throttleOverrides;
+        }
+
+        public void setThrottleOverrides(Map<String, ThrottleConfig> throttleOverrides) {
+            this.throttleOverrides = throttleOverrides;
+        }
+
+        public Duration getFlushTimerTick() {
+            return flushTimerTick;
+        }
+
+        public void setFlushTimerTick(Duration flushTimerTick) {
+            this.flushTimerTick = flushTimerTick;
+        }
+
+        public int getFlushTimerWheelSize() {
+            return flushTimerWheelSize;
+        }
+
+        public void setFlushTimerWheelSize(int flushTimerWheelSize) {
+            this.flushTimerWheelSize = flushTimerWheelSize;
+        }
+
+        public Duration getTheoreticalMaxStaleness() {
+            return theoreticalMaxStaleness;
+        }
+
+        public void setTheoreticalMaxStaleness(Duration theoreticalMaxStaleness) {
+            this.theoreticalMaxStaleness = theoreticalMaxStaleness;
+        }
+
+        PriceSnapshotSettings createSettings() {
+            Map<String, ThrottleSettings> overrides = throttleOverrides.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toSettings()));
+            return new PriceSnapshotSettings(vwapWindow, vwapWindowOverrides, nrOfWindowBuckets, throttle.toSettings(), overrides, theoreticalMaxStaleness);
+        }
+
+        public static class ThrottleConfig {
+
+            private Duration minTimeBeforeUpdate = ThrottleSettings.DEFAULT.minTimeBeforeUpdate();
+            private double minPriceChange = ThrottleSettings.DEFAULT.minPriceChange();
+
+            public Duration getMinTimeBeforeUpdate() {
+                return minTimeBeforeUpdate;
+            }
+
+            public void setMinTimeBeforeUpdate(Duration minTimeBeforeUpdate) {
+                this.minTimeBeforeUpdate = minTimeBeforeUpdate;
+            }
+
+            public double getMinPriceChange() {
+                return minPriceChange;
+            }
+
+            public void setMinPriceChange(double minPriceChange) {
+                this.minPriceChange = minPriceChange;
+            }
+
+            ThrottleSettings toSettings() {
+                return new ThrottleSettings(minTimeBeforeUpdate, minPriceChange);
+            }
+        }
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "pricing-engine.publisher")
+    public static class PricePublisherConfig {
+
+        private boolean batching = false;
+        private int partition = 0;
+        private int maxBatchSize = 512;
+        private Duration linger = Duration.ofMillis(5);
+        private int queueCapacity = 65536;
+
+        public boolean isBatching() {
+            return batching;
+        }
+
+        public void setBatching(boolean batching) {
+            this.batching = batching;
+        }
+
+        public int getPartition() {
+            return partition;
+        }
+
+        public void setPartition(int partition) {
+            this.partition = partition;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getLinger() {
+            return linger;
+        }
+
+        public void setLinger(Duration linger) {
+            this.linger = linger;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "pricing-engine.theoretical")
+    public static class TheoreticalPriceConfig {
+
+        private ImpliedVolatilityGridConfig ivGrid = new ImpliedVolatilityGridConfig();
+        private YieldCurveTableConfig yieldCurveTable = new YieldCurveTableConfig();
+
+        public ImpliedVolatilityGridConfig getIvGrid() {
+            return ivGrid;
+        }
+
+        public void setIvGrid(ImpliedVolatilityGridConfig ivGrid) {
+            this.ivGrid = ivGrid;
+        }
+
+        public YieldCurveTableConfig getYieldCurveTable() {
+            return yieldCurveTable;
+        }
+
+        public void setYieldCurveTable(YieldCurveTableConfig yieldCurveTable) {
+            this.yieldCurveTable = yieldCurveTable;
+        }
+
+        public static class ImpliedVolatilityGridConfig {
+
+            private boolean enabled = false;
+            private int nrOfTtms = 64;
+            private int nrOfStrikes = 128;
+            private double tolerance = 0.0005;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getNrOfTtms() {
+                return nrOfTtms;
+            }
+
+            public void setNrOfTtms(int nrOfTtms) {
+                this.nrOfTtms = nrOfTtms;
+            }
+
+            public int getNrOfStrikes() {
+                return nrOfStrikes;
+            }
+
+            public void setNrOfStrikes(int nrOfStrikes) {
+                this.nrOfStrikes = nrOfStrikes;
+            }
+
+            public double getTolerance() {
+                return tolerance;
+            }
+
+            public void setTolerance(double tolerance) {
+                this.tolerance = tolerance;
+            }
+
+            ImpliedVolatilityGridSettings toSettings() {
+                return new ImpliedVolatilityGridSettings(enabled, nrOfTtms, nrOfStrikes, tolerance);
+            }
+        }
+
+        public static class YieldCurveTableConfig {
+
+            private boolean enabled = false;
+            private double maxTtm = 50;
+            private int pointsPerYear = 365;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public double getMaxTtm() {
+                return maxTtm;
+            }
+
+            public void setMaxTtm(double maxTtm) {
+                this.maxTtm = maxTtm;
+            }
+
+            public int getPointsPerYear() {
+                return pointsPerYear;
+            }
+
+            public void setPointsPerYear(int pointsPerYear) {
+                this.pointsPerYear = pointsPerYear;
+            }
+
+            TabulatedYieldCurveSettings toSettings() {
+                return new TabulatedYieldCurveSettings(enabled, maxTtm, pointsPerYear);
+            }
+        }
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "pricing-engine.market-data")
+    public static class MarketDataConfig {
+
+        private Duration compactionInterval = Duration.ofMinutes(10);
+        private Map<MarketDataEntryType, RetentionConfig> retention = new EnumMap<>(MarketDataEntryType.class);
+        private String journalDirectory = "";
+        private int journalCapacityMb = 64;
+        private int surfaceConstructionParallelism = 0;
+        private Duration recalibrationInterval = Duration.ofMinutes(1);
+        private double recalibrationThreshold = 0.01;
+
+        public Duration getCompactionInterval() {
+            return compactionInterval;
+        }
+
+        public void setCompactionInterval(Duration compactionInterval) {
+            this.compactionInterval = compactionInterval;
+        }
+
+        public Map<MarketDataEntryType, RetentionConfig> getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Map<MarketDataEntryType, RetentionConfig> retention) {
+            this.retention = retention;
+        }
+
+        public String getJournalDirectory() {
+            return journalDirectory;
+        }
+
+        public void setJournalDirectory(String journalDirectory) {
+            this.journalDirectory = journalDirectory;
+        }
+
+        public int getJournalCapacityMb() {
+            return journalCapacityMb;
+        }
+
+        public void setJournalCapacityMb(int journalCapacityMb) {
+            this.journalCapacityMb = journalCapacityMb;
+        }
+
+        public int getSurfaceConstructionParallelism() {
+            return surfaceConstructionParallelism;
+        }
+
+        public void setSurfaceConstructionParallelism(int surfaceConstructionParallelism) {
+            this.surfaceConstructionParallelism = surfaceConstructionParallelism;
+        }
+
+        public Duration getRecalibrationInterval() {
+            return recalibrationInterval;
+        }
+
+        public void setRecalibrationInterval(Duration recalibrationInterval) {
+            this.recalibrationInterval = recalibrationInterval;
+        }
+
+        public double getRecalibrationThreshold() {
+            return recalibrationThreshold;
+        }
+
+        public void setRecalibrationThreshold(double recalibrationThreshold) {
+            this.recalibrationThreshold = recalibrationThreshold;
+        }
+
+        Map<MarketDataEntryType, RetentionPolicy> createRetentionPolicies() {
+            Map<MarketDataEntryType, RetentionPolicy> policies = new EnumMap<>(MarketDataEntryType.class);
+            retention.forEach((type, config) -> policies.put(type, config.toPolicy()));
+            return policies;
+        }
+
+        public static class RetentionConfig {
+
+            private int maxBusinessDays = 0;
+            private int maxEntries = 0;
+
+            public int getMaxBusinessDays() {
+                return maxBusinessDays;
+            }
+
+            public void setMaxBusinessDays(int maxBusinessDays) {
+                this.maxBusinessDays = maxBusinessDays;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            RetentionPolicy toPolicy() {
+                return new RetentionPolicy(maxBusinessDays, maxEntries);
+            }
+        }
     }
 }
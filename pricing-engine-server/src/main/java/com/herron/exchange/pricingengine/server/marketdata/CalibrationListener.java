@@ -0,0 +1,16 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataImpliedVolatilitySurface;
+import com.herron.exchange.pricingengine.server.marketdata.internal.OptionChainDataset;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface CalibrationListener {
+
+    /**
+     * Called on the calibrating thread once the surfaces built from the option chains have been added, so work derived
+     * from a new surface version never runs on the threads reading it.
+     */
+    void onCalibration(OptionChainDataset optionChains, List<MarketDataImpliedVolatilitySurface> surfaces);
+}
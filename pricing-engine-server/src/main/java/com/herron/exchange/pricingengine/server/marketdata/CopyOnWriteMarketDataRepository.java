@@ -0,0 +1,55 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataRequest;
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+
+/**
+ * Readers work on an immutable {@link MarketDataTimeSeries} read from a single volatile field and never block.
+ * Writers are serialized and publish a new series, appends in time order reuse the spare capacity of the previous one.
+ */
+public class CopyOnWriteMarketDataRepository implements MarketDataRepository {
+    private final StaticKey staticKey;
+    private volatile State state = new State(MarketDataTimeSeries.EMPTY, 0);
+
+    public CopyOnWriteMarketDataRepository(StaticKey staticKey) {
+        this.staticKey = staticKey;
+    }
+
+    @Override
+    public synchronized void addEntry(MarketDataEntry entry) {
+        var current = state;
+        state = new State(current.timeSeries().add(entry), current.version() + 1);
+    }
+
+    @Override
+    public MarketDataEntry getEntry(MarketDataRequest request) {
+        return state.timeSeries().getEntry(request);
+    }
+
+    @Override
+    public MarketDataTimeSeries getTimeSeries() {
+        return state.timeSeries();
+    }
+
+    @Override
+    public synchronized int retain(long fromEpochNanos, int maxEntries) {
+        var current = state;
+        var retained = current.timeSeries().retain(fromEpochNanos, maxEntries);
+        state = new State(retained, current.version());
+        return current.timeSeries().size() - retained.size();
+    }
+
+    @Override
+    public long getVersion() {
+        return state.version();
+    }
+
+    @Override
+    public String toString() {
+        return "CopyOnWriteMarketDataRepository[" + staticKey + "]";
+    }
+
+    private record State(MarketDataTimeSeries timeSeries, long version) {
+    }
+}
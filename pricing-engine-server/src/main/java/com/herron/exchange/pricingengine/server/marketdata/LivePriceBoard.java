@@ -0,0 +1,81 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.common.api.common.api.marketdata.TimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latest live price per static key ordinal, written by the snapshot workers and read without locks.
+ * Only the newest price is kept so intraday updates never grow the repositories. Ordinals are dense so the board is
+ * split in fixed size pages which are allocated on first write, a page is never moved once published.
+ */
+public final class LivePriceBoard {
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_PAGES = 4096;
+    private final AtomicReferenceArray<Page> pages = new AtomicReferenceArray<>(MAX_PAGES);
+
+    void update(int ordinal, MarketDataPrice price) {
+        var page = getOrCreatePage(ordinal);
+        int index = ordinal & PAGE_MASK;
+        page.prices.set(index, price);
+        page.versions.incrementAndGet(index);
+    }
+
+    MarketDataPrice get(int ordinal) {
+        var page = getPage(ordinal);
+        return page == null ? null : page.prices.get(ordinal & PAGE_MASK);
+    }
+
+    /**
+     * Number of live updates of the ordinal, added to the repository version so caches see live changes.
+     */
+    long getVersion(int ordinal) {
+        var page = getPage(ordinal);
+        return page == null ? 0 : page.versions.get(ordinal & PAGE_MASK);
+    }
+
+    /**
+     * Returns the later of the live and the stored entry which is not after the time, a null time means latest.
+     */
+    static MarketDataEntry select(MarketDataPrice live, MarketDataEntry stored, TimeComponentKey asOf) {
+        if (live == null) {
+            return stored;
+        }
+        long liveTime = MarketDataTimeSeries.toEpochNanos(live.timeComponentKey());
+        if (asOf != null && liveTime > MarketDataTimeSeries.toEpochNanos(asOf)) {
+            return stored;
+        }
+        if (stored != null && MarketDataTimeSeries.toEpochNanos(stored.timeComponentKey()) > liveTime) {
+            return stored;
+        }
+        return live;
+    }
+
+    private Page getPage(int ordinal) {
+        int pageIndex = ordinal >>> PAGE_SHIFT;
+        return pageIndex < MAX_PAGES ? pages.get(pageIndex) : null;
+    }
+
+    private Page getOrCreatePage(int ordinal) {
+        int pageIndex = ordinal >>> PAGE_SHIFT;
+        if (pageIndex >= MAX_PAGES) {
+            throw new IllegalStateException(String.format("Live price board is limited to %s ordinals.", MAX_PAGES * PAGE_SIZE));
+        }
+        var page = pages.get(pageIndex);
+        if (page == null) {
+            pages.compareAndSet(pageIndex, null, new Page());
+            page = pages.get(pageIndex);
+        }
+        return page;
+    }
+
+    private static final class Page {
+        private final AtomicReferenceArray<MarketDataPrice> prices = new AtomicReferenceArray<>(PAGE_SIZE);
+        private final AtomicLongArray versions = new AtomicLongArray(PAGE_SIZE);
+    }
+}
@@ -0,0 +1,98 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+
+/**
+ * Collects changed static keys into a dirty set and notifies the subscriptions on a dedicated thread. At most one
+ * dispatch is queued at a time, so a key changing many times before the dispatcher runs is only notified once.
+ * Writers only pay for adding the key to the set, and nothing at all when there are no subscriptions.
+ */
+final class MarketDataChangeDispatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MarketDataChangeDispatcher.class);
+    private final Supplier<MarketDataSnapshot> snapshotSupplier;
+    private final Set<StaticKey> changedKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean isDispatchScheduled = new AtomicBoolean(false);
+    private final List<MarketDataSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcherThread = newSingleThreadExecutor(new ThreadWrapper("Market-Data-Dispatcher"));
+
+    MarketDataChangeDispatcher(Supplier<MarketDataSnapshot> snapshotSupplier) {
+        this.snapshotSupplier = snapshotSupplier;
+    }
+
+    MarketDataSubscription subscribe(Set<StaticKey> staticKeys, Set<MarketDataEntryType> entryTypes, MarketDataChangeListener listener) {
+        var subscription = new MarketDataSubscription(this, staticKeys, entryTypes, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    void unsubscribe(MarketDataSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    void markChanged(StaticKey staticKey) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        changedKeys.add(staticKey);
+        scheduleDispatch();
+    }
+
+    void stop() {
+        subscriptions.clear();
+        dispatcherThread.shutdown();
+    }
+
+    private void scheduleDispatch() {
+        if (!isDispatchScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcherThread.execute(this::dispatch);
+        } catch (RejectedExecutionException e) {
+            isDispatchScheduled.set(false);
+        }
+    }
+
+    private void dispatch() {
+        isDispatchScheduled.set(false);
+        Set<StaticKey> changed = new HashSet<>();
+        for (Iterator<StaticKey> iterator = changedKeys.iterator(); iterator.hasNext(); ) {
+            changed.add(iterator.next());
+            iterator.remove();
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        var snapshot = snapshotSupplier.get();
+        for (var subscription : subscriptions) {
+            Set<StaticKey> subscribedChanges = new HashSet<>();
+            for (var staticKey : changed) {
+                if (subscription.matches(staticKey)) {
+                    subscribedChanges.add(staticKey);
+                }
+            }
+            if (subscribedChanges.isEmpty()) {
+                continue;
+            }
+            try {
+                subscription.getListener().onChange(Collections.unmodifiableSet(subscribedChanges), snapshot);
+            } catch (Exception e) {
+                LOGGER.error("Failed to notify {} of changed market data.", subscription, e);
+            }
+        }
+    }
+}
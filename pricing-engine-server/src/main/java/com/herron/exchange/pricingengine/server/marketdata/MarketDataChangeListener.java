@@ -0,0 +1,17 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+
+import java.util.Set;
+
+@FunctionalInterface
+public interface MarketDataChangeListener {
+
+    /**
+     * Called on the dispatcher thread with the subscribed keys which changed since the previous call. Changes made
+     * while a call is in progress are coalesced into the next call. The snapshot contains all of the changed stored
+     * entries, live prices set by {@link MarketDataService#updateLivePrice} are not part of it. Read prices through the
+     * price lookups of {@link MarketDataService} or a {@link MarketDataHandle}, which consider the live price.
+     */
+    void onChange(Set<StaticKey> changedKeys, MarketDataSnapshot snapshot);
+}
@@ -0,0 +1,50 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+
+/**
+ * Periodically evicts market data history on a background thread so lookups never wait for eviction.
+ */
+public class MarketDataCompactor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MarketDataCompactor.class);
+    private final MarketDataService marketDataService;
+    private final Duration interval;
+    private final ScheduledExecutorService compactorThread;
+
+    public MarketDataCompactor(MarketDataService marketDataService, Duration interval) {
+        this.marketDataService = marketDataService;
+        this.interval = interval;
+        this.compactorThread = newScheduledThreadPool(1, new ThreadWrapper("Market-Data-Compactor"));
+    }
+
+    public void init() {
+        compactorThread.scheduleWithFixedDelay(this::compact, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        compactorThread.shutdown();
+    }
+
+    private void compact() {
+        try {
+            long startTime = System.nanoTime();
+            int evicted = marketDataService.compact(LocalDate.now());
+            LOGGER.info("Compacted market data in {}ms, evicted {} entries. Entries per type: {}, estimated heap bytes per type: {}.",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                    evicted,
+                    marketDataService.getNrOfEntries(),
+                    marketDataService.getEstimatedHeapUsage());
+        } catch (Exception e) {
+            LOGGER.error("Failed to compact market data.", e);
+        }
+    }
+}
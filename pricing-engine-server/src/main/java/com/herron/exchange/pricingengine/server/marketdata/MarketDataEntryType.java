@@ -0,0 +1,42 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.MarketDataForwardPriceCurveStaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.MarketDataImpliedVolatilitySurfaceStaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.MarketDataPriceStaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.MarketDataYieldCurveStaticKey;
+
+/**
+ * The kind of market data stored under a static key. The estimated entry size is a rough average of the retained heap
+ * of one entry and is only used to report heap usage, curves and surfaces hold their interpolation points.
+ */
+public enum MarketDataEntryType {
+    PRICE(160),
+    YIELD_CURVE(4_096),
+    FORWARD_PRICE_CURVE(4_096),
+    IMPLIED_VOLATILITY_SURFACE(32_768),
+    OTHER(256);
+
+    private final long estimatedEntryBytes;
+
+    MarketDataEntryType(long estimatedEntryBytes) {
+        this.estimatedEntryBytes = estimatedEntryBytes;
+    }
+
+    public long getEstimatedEntryBytes() {
+        return estimatedEntryBytes;
+    }
+
+    public static MarketDataEntryType from(StaticKey staticKey) {
+        if (staticKey instanceof MarketDataPriceStaticKey) {
+            return PRICE;
+        } else if (staticKey instanceof MarketDataYieldCurveStaticKey) {
+            return YIELD_CURVE;
+        } else if (staticKey instanceof MarketDataForwardPriceCurveStaticKey) {
+            return FORWARD_PRICE_CURVE;
+        } else if (staticKey instanceof MarketDataImpliedVolatilitySurfaceStaticKey) {
+            return IMPLIED_VOLATILITY_SURFACE;
+        }
+        return OTHER;
+    }
+}
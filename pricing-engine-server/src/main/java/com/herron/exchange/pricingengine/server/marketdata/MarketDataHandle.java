@@ -0,0 +1,102 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+import com.herron.exchange.common.api.common.api.marketdata.TimeComponentKey;
+import com.herron.exchange.pricingengine.server.marketdata.metrics.LookupMetrics;
+import com.herron.exchange.pricingengine.server.marketdata.metrics.MarketDataMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter.LATEST;
+import static com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR;
+
+/**
+ * A static key resolved once by {@link MarketDataService#resolve}. Reads go straight to the time series of the key in a
+ * snapshot by ordinal, no request objects are built and the static key is never hashed again.
+ * Price handles also read the {@link LivePriceBoard}, the live price is not part of the pinned snapshot and is
+ * always the one at the time of the call. The metrics of the key are resolved up front as well, recording a lookup
+ * only costs the clock reads and counter increments.
+ */
+public final class MarketDataHandle<T extends MarketDataEntry> {
+    private final MarketDataService marketDataService;
+    private final StaticKey staticKey;
+    private final int ordinal;
+    private final MarketDataRepository repository;
+    private final LivePriceBoard livePriceBoard;
+    private final Class<T> entryClass;
+    private final LookupMetrics latestLookups;
+    private final LookupMetrics asOfLookups;
+    private final LongAdder keyLookups;
+
+    MarketDataHandle(MarketDataService marketDataService,
+                     StaticKey staticKey,
+                     int ordinal,
+                     MarketDataRepository repository,
+                     LivePriceBoard livePriceBoard,
+                     Class<T> entryClass,
+                     MarketDataMetrics metrics) {
+        this.marketDataService = marketDataService;
+        this.staticKey = staticKey;
+        this.ordinal = ordinal;
+        this.repository = repository;
+        this.livePriceBoard = livePriceBoard;
+        this.entryClass = entryClass;
+        var entryType = MarketDataEntryType.from(staticKey);
+        this.latestLookups = metrics.getLookupMetrics(entryType, LATEST);
+        this.asOfLookups = metrics.getLookupMetrics(entryType, MATCH_OR_FIRST_PRIOR);
+        this.keyLookups = metrics.register(staticKey);
+    }
+
+    public T latest() {
+        return latest(marketDataService.snapshot());
+    }
+
+    public T latest(MarketDataSnapshot snapshot) {
+        long startTime = System.nanoTime();
+        var stored = snapshot.getTimeSeries(ordinal).getLatest();
+        var entry = entryClass.cast(livePriceBoard == null ? stored : LivePriceBoard.select(livePriceBoard.get(ordinal), stored, null));
+        recordLookup(latestLookups, entry != null, startTime);
+        return entry;
+    }
+
+    /**
+     * Returns the entry at the time or the closest one before it, null if there is none.
+     */
+    public T asOf(TimeComponentKey timeComponentKey) {
+        return asOf(marketDataService.snapshot(), timeComponentKey);
+    }
+
+    public T asOf(MarketDataSnapshot snapshot, TimeComponentKey timeComponentKey) {
+        long startTime = System.nanoTime();
+        var stored = snapshot.getTimeSeries(ordinal).getMatchOrFirstPrior(timeComponentKey);
+        var entry = entryClass.cast(livePriceBoard == null ? stored : LivePriceBoard.select(livePriceBoard.get(ordinal), stored, timeComponentKey));
+        recordLookup(asOfLookups, entry != null, startTime);
+        return entry;
+    }
+
+    private void recordLookup(LookupMetrics lookupMetrics, boolean isHit, long startTime) {
+        lookupMetrics.record(isHit, System.nanoTime() - startTime);
+        keyLookups.increment();
+    }
+
+    /**
+     * Same as {@link MarketDataService#getVersion(StaticKey)} without the key lookup.
+     */
+    public long getVersion() {
+        return repository.getVersion() + (livePriceBoard == null ? 0 : livePriceBoard.getVersion(ordinal));
+    }
+
+    int getOrdinal() {
+        return ordinal;
+    }
+
+    public StaticKey getStaticKey() {
+        return staticKey;
+    }
+
+    @Override
+    public String toString() {
+        return "MarketDataHandle[" + staticKey + "]";
+    }
+}
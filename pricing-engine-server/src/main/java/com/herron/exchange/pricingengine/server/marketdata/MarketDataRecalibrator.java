@@ -0,0 +1,170 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+import com.herron.exchange.common.api.common.api.referencedata.instruments.Instrument;
+import com.herron.exchange.common.api.common.api.referencedata.instruments.OptionInstrument;
+import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.MarketDataPriceStaticKey;
+import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
+import com.herron.exchange.pricingengine.server.marketdata.internal.OptionChainDataset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.herron.exchange.common.api.common.enums.PriceType.THEORETICAL;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+
+/**
+ * Rebuilds the forward curves and implied volatility surfaces of underlyings whose option or underlying prices moved
+ * more than the threshold since they were last calibrated. Price changes only mark the underlying as dirty, the rebuild
+ * runs periodically on a background thread and reads nothing but the options of the dirty underlyings, so the cost of a
+ * cycle depends on what changed. The new curves and surfaces of a cycle are swapped in as one snapshot. Theoretical
+ * prices are derived from the surfaces themselves and never make an underlying dirty.
+ */
+public class MarketDataRecalibrator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MarketDataRecalibrator.class);
+    private final MarketDataService marketDataService;
+    private final double threshold;
+    private final Duration interval;
+    private final ScheduledExecutorService recalibratorThread;
+    private final OptionChainCalibration calibration;
+    private final Map<String, List<OptionInstrument>> underlyingIdToOptions = new HashMap<>();
+    private final Map<String, String> optionIdToUnderlyingId = new HashMap<>();
+    private final Map<String, Double> instrumentIdToCalibratedPrice = new ConcurrentHashMap<>();
+    private final Set<String> dirtyUnderlyingIds = ConcurrentHashMap.newKeySet();
+    private MarketDataSubscription subscription;
+
+    /**
+     * @param threshold the relative price change, e.g. 0.01 for 1%, which makes an underlying dirty
+     */
+    public MarketDataRecalibrator(MarketDataService marketDataService, double threshold, Duration interval) {
+        this(marketDataService, threshold, interval, options -> calibrateOptionChains(marketDataService, options));
+    }
+
+    MarketDataRecalibrator(MarketDataService marketDataService, double threshold, Duration interval, OptionChainCalibration calibration) {
+        this.marketDataService = marketDataService;
+        this.threshold = threshold;
+        this.interval = interval;
+        this.calibration = calibration;
+        this.recalibratorThread = newScheduledThreadPool(1, new ThreadWrapper("Market-Data-Recalibrator"));
+    }
+
+    /**
+     * Must be called after the market data has been initialized, the current prices are taken as the calibrated ones.
+     */
+    public void init() {
+        addOptions(ReferenceDataCache.getCache().getInstruments());
+        subscription = marketDataService.subscribe(MarketDataEntryType.PRICE, this::onPriceChange);
+        recalibratorThread.scheduleWithFixedDelay(this::recalibrate, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        LOGGER.info("Recalibrating {} underlyings every {} on price changes above {}.", underlyingIdToOptions.size(), interval, threshold);
+    }
+
+    void addOptions(Collection<? extends Instrument> instruments) {
+        for (var instrument : instruments) {
+            if (instrument instanceof OptionInstrument option && option.underlyingInstrumentId() != null) {
+                underlyingIdToOptions.computeIfAbsent(option.underlyingInstrumentId(), k -> new ArrayList<>()).add(option);
+                optionIdToUnderlyingId.put(option.instrumentId(), option.underlyingInstrumentId());
+            }
+        }
+        Set<String> instrumentIds = new HashSet<>(optionIdToUnderlyingId.keySet());
+        instrumentIds.addAll(underlyingIdToOptions.keySet());
+        marketDataService.getMarketDataPrices(instrumentIds, Timestamp.now()).forEach((instrumentId, price) -> {
+            if (price.priceType() != THEORETICAL) {
+                instrumentIdToCalibratedPrice.put(instrumentId, price.price().getRealValue());
+            }
+        });
+    }
+
+    public void stop() {
+        if (subscription != null) {
+            subscription.close();
+        }
+        recalibratorThread.shutdown();
+    }
+
+    public Set<String> getDirtyUnderlyingIds() {
+        return Set.copyOf(dirtyUnderlyingIds);
+    }
+
+    void onPriceChange(Set<StaticKey> changedKeys, MarketDataSnapshot snapshot) {
+        Map<String, String> instrumentIdToUnderlyingId = new HashMap<>();
+        for (var staticKey : changedKeys) {
+            var instrumentId = ((MarketDataPriceStaticKey) staticKey).instrumentId();
+            var underlyingId = underlyingIdToOptions.containsKey(instrumentId) ? instrumentId : optionIdToUnderlyingId.get(instrumentId);
+            if (underlyingId != null && !dirtyUnderlyingIds.contains(underlyingId)) {
+                instrumentIdToUnderlyingId.put(instrumentId, underlyingId);
+            }
+        }
+        if (instrumentIdToUnderlyingId.isEmpty()) {
+            return;
+        }
+
+        var asOf = ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.now()).build();
+        var instrumentIdToPrice = marketDataService.getMarketDataPrices(snapshot, instrumentIdToUnderlyingId.keySet(), asOf);
+        instrumentIdToPrice.forEach((instrumentId, price) -> {
+            if (price.priceType() != THEORETICAL && exceedsThreshold(instrumentIdToCalibratedPrice.get(instrumentId), price)) {
+                dirtyUnderlyingIds.add(instrumentIdToUnderlyingId.get(instrumentId));
+            }
+        });
+    }
+
+    void recalibrate() {
+        if (dirtyUnderlyingIds.isEmpty()) {
+            return;
+        }
+        Set<String> underlyingIds = new HashSet<>();
+        for (Iterator<String> iterator = dirtyUnderlyingIds.iterator(); iterator.hasNext(); ) {
+            underlyingIds.add(iterator.next());
+            iterator.remove();
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            List<OptionInstrument> options = new ArrayList<>();
+            for (var underlyingId : underlyingIds) {
+                options.addAll(underlyingIdToOptions.getOrDefault(underlyingId, List.of()));
+            }
+            instrumentIdToCalibratedPrice.putAll(calibration.calibrate(options));
+            LOGGER.info("Recalibrated {} underlyings with {} options in {}ms.",
+                    underlyingIds.size(),
+                    options.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        } catch (Exception e) {
+            dirtyUnderlyingIds.addAll(underlyingIds);
+            LOGGER.error("Failed to recalibrate {}.", underlyingIds, e);
+        }
+    }
+
+    private static Map<String, Double> calibrateOptionChains(MarketDataService marketDataService, List<OptionInstrument> options) {
+        var optionChains = OptionChainDataset.gather(marketDataService, Timestamp.now(), options);
+        int nrOfEntries = marketDataService.calibrate(optionChains);
+        LOGGER.debug("Added {} curves and surfaces for {} options.", nrOfEntries, options.size());
+        Map<String, Double> instrumentIdToPrice = new HashMap<>();
+        optionChains.instrumentToPrice().forEach((instrument, price) -> instrumentIdToPrice.put(instrument.instrumentId(), price.getRealValue()));
+        return instrumentIdToPrice;
+    }
+
+    private boolean exceedsThreshold(Double calibratedPrice, MarketDataPrice price) {
+        if (calibratedPrice == null) {
+            return true;
+        }
+        return Math.abs(price.price().getRealValue() - calibratedPrice) > threshold * Math.abs(calibratedPrice);
+    }
+
+    /**
+     * Builds and adds the curves and surfaces of the options, returns the prices they were calibrated to by instrument id.
+     */
+    @FunctionalInterface
+    interface OptionChainCalibration {
+
+        Map<String, Double> calibrate(List<OptionInstrument> options);
+    }
+}
@@ -3,7 +3,9 @@ package com.herron.exchange.pricingengine.server.marketdata;
 import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
 import com.herron.exchange.common.api.common.api.marketdata.MarketDataRequest;
 import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+import com.herron.exchange.common.api.common.api.marketdata.TimeComponentKey;
 import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
 import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataForwardPriceCurve;
 import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataImpliedVolatilitySurface;
 import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
@@ -13,44 +15,119 @@ import com.herron.exchange.common.api.common.messages.marketdata.requests.Market
 import com.herron.exchange.common.api.common.messages.marketdata.requests.MarketDataPriceRequest;
 import com.herron.exchange.common.api.common.messages.marketdata.requests.MarketDataYieldCurveRequest;
 import com.herron.exchange.common.api.common.messages.marketdata.response.*;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataForwardPriceCurveStaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataImpliedVolatilitySurfaceStaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataYieldCurveStaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.MarketDataPriceStaticKey;
 import com.herron.exchange.pricingengine.server.marketdata.external.ExternalMarketDataHandler;
 import com.herron.exchange.pricingengine.server.marketdata.internal.ForwardPriceCurveHandler;
 import com.herron.exchange.pricingengine.server.marketdata.internal.ImpliedVolatilitySurfaceHandler;
+import com.herron.exchange.pricingengine.server.marketdata.internal.OptionChainDataset;
+import com.herron.exchange.pricingengine.server.marketdata.journal.MarketDataJournal;
+import com.herron.exchange.pricingengine.server.marketdata.metrics.MarketDataMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
+import static com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR;
+import static com.herron.exchange.common.api.common.enums.PriceType.THEORETICAL;
 import static com.herron.exchange.common.api.common.enums.Status.OK;
 
 public class MarketDataService {
     private static final Logger LOGGER = LoggerFactory.getLogger(MarketDataService.class);
+    private static final String SETTLEMENT_PRICES_SOURCE = "PREVIOUS_DAY_SETTLEMENT_PRICES";
+    private static final String YIELD_CURVES_SOURCE = "YIELD_CURVES";
+    private static final long SLOT_BYTES = Long.BYTES + Integer.BYTES;
 
     private final ExternalMarketDataHandler externalMarketDataHandler;
     private final ImpliedVolatilitySurfaceHandler impliedVolatilitySurfaceHandler;
     private final ForwardPriceCurveHandler forwardPriceCurveHandler;
-    private final Map<StaticKey, MarketDataRepository> keyToRepository = new ConcurrentHashMap<>();
+    private final Map<StaticKey, Integer> keyToOrdinal = new ConcurrentHashMap<>();
+    private final Map<String, Integer> instrumentIdToPriceOrdinal = new ConcurrentHashMap<>();
+    private final List<MarketDataRepository> repositories = new CopyOnWriteArrayList<>();
+    private final Function<StaticKey, MarketDataRepository> repositoryFactory;
+    private final Map<MarketDataEntryType, RetentionPolicy> retentionPolicies;
+    private final MarketDataJournal journal;
+    private final LivePriceBoard livePriceBoard = new LivePriceBoard();
+    private final MarketDataChangeDispatcher changeDispatcher = new MarketDataChangeDispatcher(this::snapshot);
+    private final MarketDataMetrics metrics = new MarketDataMetrics();
+    private final List<CalibrationListener> calibrationListeners = new CopyOnWriteArrayList<>();
+    private volatile MarketDataSnapshot snapshot = MarketDataSnapshot.EMPTY;
 
     public MarketDataService(ExternalMarketDataHandler externalMarketDataHandler) {
+        this(externalMarketDataHandler, Map.of(), MarketDataJournal.NONE);
+    }
+
+    public MarketDataService(ExternalMarketDataHandler externalMarketDataHandler,
+                             Map<MarketDataEntryType, RetentionPolicy> retentionPolicies,
+                             MarketDataJournal journal) {
+        this(externalMarketDataHandler, retentionPolicies, journal, 0);
+    }
+
+    public MarketDataService(ExternalMarketDataHandler externalMarketDataHandler,
+                             Map<MarketDataEntryType, RetentionPolicy> retentionPolicies,
+                             MarketDataJournal journal,
+                             int surfaceConstructionParallelism) {
+        this(externalMarketDataHandler, CopyOnWriteMarketDataRepository::new, retentionPolicies, journal, surfaceConstructionParallelism);
+    }
+
+    public MarketDataService(ExternalMarketDataHandler externalMarketDataHandler,
+                             Function<StaticKey, MarketDataRepository> repositoryFactory,
+                             Map<MarketDataEntryType, RetentionPolicy> retentionPolicies,
+                             MarketDataJournal journal,
+                             int surfaceConstructionParallelism) {
         this.externalMarketDataHandler = externalMarketDataHandler;
-        this.impliedVolatilitySurfaceHandler = new ImpliedVolatilitySurfaceHandler(this);
-        this.forwardPriceCurveHandler = new ForwardPriceCurveHandler(this);
+        this.repositoryFactory = repositoryFactory;
+        this.retentionPolicies = retentionPolicies;
+        this.journal = journal;
+        this.impliedVolatilitySurfaceHandler = new ImpliedVolatilitySurfaceHandler(this, surfaceConstructionParallelism);
+        this.forwardPriceCurveHandler = new ForwardPriceCurveHandler();
     }
 
     public void init() {
         LOGGER.info("Init Market Data Repository.");
+        var replay = journal.replay();
+        addEntries(replay.entries(), false);
         try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            Runnable task1 = () ->
-                    externalMarketDataHandler.getPreviousDaySettlementPrices().forEach(this::addEntry);
+            Runnable task1 = () -> {
+                if (replay.hasCheckpoint(SETTLEMENT_PRICES_SOURCE)) {
+                    LOGGER.info("Previous day settlement prices restored from journal.");
+                    return;
+                }
+                var settlementPrices = externalMarketDataHandler.getPreviousDaySettlementPrices();
+                addEntries(settlementPrices);
+                if (settlementPrices.isEmpty()) {
+                    LOGGER.warn("No previous day settlement prices fetched, they are fetched again on restart.");
+                    return;
+                }
+                journal.checkpoint(SETTLEMENT_PRICES_SOURCE);
+            };
 
-            Runnable task2 = () ->
-                    externalMarketDataHandler.getYieldCurves(LocalDate.now().minusDays(50), LocalDate.now()).forEach(this::addEntry);
+            Runnable task2 = () -> {
+                if (replay.hasCheckpoint(YIELD_CURVES_SOURCE)) {
+                    LOGGER.info("Yield curves restored from journal.");
+                    addEntries(externalMarketDataHandler.createYieldCurves(replay.yieldCurvePoints()), false);
+                    return;
+                }
+                var yieldCurvePoints = externalMarketDataHandler.getYieldCurvePoints(LocalDate.now().minusDays(50), LocalDate.now());
+                journal.appendYieldCurvePoints(yieldCurvePoints);
+                addEntries(externalMarketDataHandler.createYieldCurves(yieldCurvePoints), false);
+                if (yieldCurvePoints.isEmpty()) {
+                    LOGGER.warn("No yield curve points fetched, they are fetched again on restart.");
+                    return;
+                }
+                journal.checkpoint(YIELD_CURVES_SOURCE);
+            };
 
             Stream.of(task1, task2).forEach(executor::submit);
 
@@ -65,16 +142,273 @@ public class MarketDataService {
             }
         }
 
-        forwardPriceCurveHandler.createForwardPriceCurves(Timestamp.now()).forEach(this::addEntry);
-        impliedVolatilitySurfaceHandler.createSurfaces(Timestamp.now()).forEach(this::addEntry);
+        calibrate(OptionChainDataset.gather(this, Timestamp.now()));
+    }
+
+    /**
+     * Builds the forward curves and implied volatility surfaces of the underlyings in the option chains and adds them
+     * in one snapshot, so readers never see a new surface together with an old forward curve.
+     */
+    public int calibrate(OptionChainDataset optionChains) {
+        var forwardPriceCurves = forwardPriceCurveHandler.createForwardPriceCurves(optionChains);
+        var surfaces = impliedVolatilitySurfaceHandler.createSurfaces(optionChains, forwardPriceCurves);
+        List<MarketDataEntry> entries = new ArrayList<>(forwardPriceCurves.size() + surfaces.size());
+        entries.addAll(forwardPriceCurves);
+        entries.addAll(surfaces);
+        addEntries(entries);
+        for (var listener : calibrationListeners) {
+            try {
+                listener.onCalibration(optionChains, surfaces);
+            } catch (Exception e) {
+                LOGGER.warn("Unhandled exception in calibration listener {}.", listener, e);
+            }
+        }
+        return entries.size();
+    }
+
+    public void addCalibrationListener(CalibrationListener listener) {
+        calibrationListeners.add(listener);
     }
 
     public void addEntry(MarketDataEntry entry) {
-        keyToRepository.computeIfAbsent(entry.staticKey(), MarketDataRepository::new).addEntry(entry);
+        addEntries(List.of(entry));
+    }
+
+    /**
+     * Adds all entries and publishes them in a single new snapshot, so readers see either none or all of them.
+     * The entries are appended to the journal in the same order as they are applied.
+     */
+    public void addEntries(Collection<? extends MarketDataEntry> entries) {
+        addEntries(entries, true);
+    }
+
+    private synchronized void addEntries(Collection<? extends MarketDataEntry> entries, boolean journaled) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (journaled) {
+            journal.append(entries);
+        }
+        int[] ordinals = new int[entries.size()];
+        int index = 0;
+        for (var entry : entries) {
+            int ordinal = resolveOrdinal(entry.staticKey());
+            repositories.get(ordinal).addEntry(entry);
+            ordinals[index++] = ordinal;
+        }
+        var ordinalToTimeSeries = Arrays.copyOf(snapshot.getOrdinalToTimeSeries(), repositories.size());
+        for (int ordinal : ordinals) {
+            ordinalToTimeSeries[ordinal] = repositories.get(ordinal).getTimeSeries();
+        }
+        snapshot = new MarketDataSnapshot(snapshot.getEpoch() + 1, keyToOrdinal, ordinalToTimeSeries);
+        for (var entry : entries) {
+            changeDispatcher.markChanged(entry.staticKey());
+        }
+    }
+
+    /**
+     * Notifies the listener when entries are added or live prices updated for any of the static keys.
+     */
+    public MarketDataSubscription subscribe(Collection<? extends StaticKey> staticKeys, MarketDataChangeListener listener) {
+        return changeDispatcher.subscribe(Set.copyOf(staticKeys), Set.of(), listener);
+    }
+
+    /**
+     * Notifies the listener when entries are added or live prices updated for any static key of the entry type.
+     * Compaction only evicts history and is not notified.
+     */
+    public MarketDataSubscription subscribe(MarketDataEntryType entryType, MarketDataChangeListener listener) {
+        return changeDispatcher.subscribe(Set.of(), EnumSet.of(entryType), listener);
+    }
+
+    public void stop() {
+        changeDispatcher.stop();
+        impliedVolatilitySurfaceHandler.stop();
+    }
+
+    /**
+     * Resolves the static key once and returns a handle which reads its entries without building requests or hashing
+     * the key again. Handles are meant to be cached by the caller, a key without data resolves to an empty handle.
+     */
+    public <T extends MarketDataEntry> MarketDataHandle<T> resolve(StaticKey staticKey, Class<T> entryClass) {
+        int ordinal = resolveOrdinal(staticKey);
+        var livePrices = MarketDataEntryType.from(staticKey) == MarketDataEntryType.PRICE ? livePriceBoard : null;
+        return new MarketDataHandle<>(this, staticKey, ordinal, repositories.get(ordinal), livePrices, entryClass, metrics);
+    }
+
+    /**
+     * Sets the live price of the instrument, it takes precedence over stored prices which are not newer. Only the
+     * latest live price is kept, it is not added to the history of the repository. Theoretical prices are model output
+     * and not market observations, they are ignored so price lookups never return them as market prices.
+     */
+    public void updateLivePrice(MarketDataHandle<MarketDataPrice> handle, MarketDataPrice price) {
+        if (price.priceType() == THEORETICAL) {
+            return;
+        }
+        livePriceBoard.update(handle.getOrdinal(), price);
+        changeDispatcher.markChanged(handle.getStaticKey());
+    }
+
+    public MarketDataHandle<MarketDataPrice> resolvePrice(String instrumentId) {
+        return resolve(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrumentId).build(), MarketDataPrice.class);
+    }
+
+    public MarketDataHandle<MarketDataYieldCurve> resolveYieldCurve(String curveId) {
+        return resolve(ImmutableMarketDataYieldCurveStaticKey.builder().curveId(curveId).build(), MarketDataYieldCurve.class);
+    }
+
+    public MarketDataHandle<MarketDataForwardPriceCurve> resolveForwardPriceCurve(String instrumentId) {
+        return resolve(ImmutableMarketDataForwardPriceCurveStaticKey.builder().instrumentId(instrumentId).build(), MarketDataForwardPriceCurve.class);
+    }
+
+    public MarketDataHandle<MarketDataImpliedVolatilitySurface> resolveImpliedVolatilitySurface(String instrumentId) {
+        return resolve(ImmutableMarketDataImpliedVolatilitySurfaceStaticKey.builder().instrumentId(instrumentId).build(), MarketDataImpliedVolatilitySurface.class);
+    }
+
+    private int resolveOrdinal(StaticKey staticKey) {
+        Integer ordinal = keyToOrdinal.get(staticKey);
+        return ordinal != null ? ordinal : createOrdinal(staticKey);
     }
 
+    private synchronized int createOrdinal(StaticKey staticKey) {
+        Integer ordinal = keyToOrdinal.get(staticKey);
+        if (ordinal == null) {
+            repositories.add(repositoryFactory.apply(staticKey));
+            ordinal = repositories.size() - 1;
+            keyToOrdinal.put(staticKey, ordinal);
+            metrics.register(staticKey);
+            if (staticKey instanceof MarketDataPriceStaticKey priceStaticKey) {
+                instrumentIdToPriceOrdinal.put(priceStaticKey.instrumentId(), ordinal);
+            }
+        }
+        return ordinal;
+    }
+
+    /**
+     * Evicts history according to the retention policy of each entry type and returns the number of evicted entries.
+     * Eviction is done per repository without holding the service lock, the evicted series are then published in one
+     * new snapshot. Readers of older snapshots keep seeing the full history until they release them.
+     */
+    public int compact(LocalDate today) {
+        int evicted = 0;
+        for (var entry : keyToOrdinal.entrySet()) {
+            var policy = retentionPolicies.getOrDefault(MarketDataEntryType.from(entry.getKey()), RetentionPolicy.UNLIMITED);
+            if (!policy.isUnlimited()) {
+                evicted += repositories.get(entry.getValue()).retain(policy.getRetainFromEpochNanos(today), policy.maxEntries());
+            }
+        }
+        if (evicted > 0) {
+            publishCompactedSnapshot();
+        }
+        return evicted;
+    }
+
+    private synchronized void publishCompactedSnapshot() {
+        var ordinalToTimeSeries = new MarketDataTimeSeries[repositories.size()];
+        for (int ordinal = 0; ordinal < ordinalToTimeSeries.length; ordinal++) {
+            ordinalToTimeSeries[ordinal] = repositories.get(ordinal).getTimeSeries();
+        }
+        snapshot = new MarketDataSnapshot(snapshot.getEpoch() + 1, keyToOrdinal, ordinalToTimeSeries);
+    }
+
+    /**
+     * Returns the estimated heap used by the stored entries per entry type, based on the current snapshot.
+     */
+    public Map<MarketDataEntryType, Long> getEstimatedHeapUsage() {
+        Map<MarketDataEntryType, Long> typeToBytes = new EnumMap<>(MarketDataEntryType.class);
+        var current = snapshot;
+        keyToOrdinal.forEach((staticKey, ordinal) -> {
+            var type = MarketDataEntryType.from(staticKey);
+            var timeSeries = current.getTimeSeries(ordinal);
+            long bytes = (long) timeSeries.size() * type.getEstimatedEntryBytes() + (long) timeSeries.capacity() * SLOT_BYTES;
+            typeToBytes.merge(type, bytes, Long::sum);
+        });
+        return typeToBytes;
+    }
+
+    /**
+     * Returns the number of stored entries per entry type, based on the current snapshot.
+     */
+    public Map<MarketDataEntryType, Long> getNrOfEntries() {
+        Map<MarketDataEntryType, Long> typeToEntries = new EnumMap<>(MarketDataEntryType.class);
+        var current = snapshot;
+        keyToOrdinal.forEach((staticKey, ordinal) ->
+                typeToEntries.merge(MarketDataEntryType.from(staticKey), (long) current.getTimeSeries(ordinal).size(), Long::sum));
+        return typeToEntries;
+    }
+
+    /**
+     * Returns the current immutable view of all market data. Calculations needing several inputs should read them all
+     * from one snapshot to avoid mixing data from different points in time.
+     */
+    public MarketDataSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public MarketDataMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns a counter which increases every time an entry is added for the static key, 0 if there is no data.
+     */
+    public long getVersion(StaticKey staticKey) {
+        Integer ordinal = keyToOrdinal.get(staticKey);
+        return ordinal == null ? 0 : repositories.get(ordinal).getVersion() + livePriceBoard.getVersion(ordinal);
+    }
+
+    public Map<String, MarketDataPrice> getMarketDataPrices(Collection<String> instrumentIds, Timestamp asOf) {
+        return getMarketDataPrices(snapshot, instrumentIds, ImmutableDefaultTimeComponentKey.builder().timeOfEvent(asOf).build());
+    }
+
+    /**
+     * Returns the price at or first prior to the time for every instrument which has one, keyed by instrument id.
+     * All prices are read from the snapshot in one pass, instruments are looked up by id without building static keys
+     * and unknown instruments are skipped. Live prices are considered as in {@link #getMarketDataPrice}.
+     */
+    public Map<String, MarketDataPrice> getMarketDataPrices(MarketDataSnapshot snapshot, Collection<String> instrumentIds, TimeComponentKey asOf) {
+        Map<String, MarketDataPrice> instrumentIdToPrice = new HashMap<>(Math.max(16, instrumentIds.size() * 4 / 3 + 1));
+        var lookupMetrics = metrics.getLookupMetrics(MarketDataEntryType.PRICE, MATCH_OR_FIRST_PRIOR);
+        for (var instrumentId : instrumentIds) {
+            long startTime = System.nanoTime();
+            Integer ordinal = instrumentIdToPriceOrdinal.get(instrumentId);
+            if (ordinal == null) {
+                lookupMetrics.record(false, System.nanoTime() - startTime);
+                continue;
+            }
+            var stored = snapshot.getTimeSeries(ordinal).getMatchOrFirstPrior(asOf);
+            var entry = LivePriceBoard.select(livePriceBoard.get(ordinal), stored, asOf);
+            if (entry != null) {
+                instrumentIdToPrice.put(instrumentId, (MarketDataPrice) entry);
+            }
+            lookupMetrics.record(entry != null, System.nanoTime() - startTime);
+        }
+        return instrumentIdToPrice;
+    }
+
+    /**
+     * Latest and first prior lookups also consider the live price, other time filters only read stored prices.
+     */
     public MarketDataPriceResponse getMarketDataPrice(MarketDataPriceRequest request) {
-        var entry = getEntry(request);
+        long startTime = System.nanoTime();
+        var response = lookupMarketDataPrice(request);
+        recordLookup(request, MarketDataEntryType.PRICE, response.status() == OK, startTime);
+        return response;
+    }
+
+    private MarketDataPriceResponse lookupMarketDataPrice(MarketDataPriceRequest request) {
+        var current = snapshot;
+        Integer ordinal = keyToOrdinal.get(request.staticKey());
+        var livePrice = ordinal == null ? null : livePriceBoard.get(ordinal);
+        if (livePrice == null) {
+            return current.getMarketDataPrice(request);
+        }
+        var timeSeries = current.getTimeSeries(ordinal);
+        var entry = switch (request.timeFilter()) {
+            case LATEST -> LivePriceBoard.select(livePrice, timeSeries.getLatest(), null);
+            case MATCH_OR_FIRST_PRIOR -> LivePriceBoard.select(livePrice, timeSeries.getMatchOrFirstPrior(request.timeComponentKey()), request.timeComponentKey());
+            default -> timeSeries.getEntry(request);
+        };
         if (entry == null) {
             return MarketDataPriceResponse.createErrorResponse(String.format("No matching entry found: %s.", request));
         }
@@ -85,43 +419,27 @@ public class MarketDataService {
     }
 
     public MarketDataYieldCurveResponse getYieldCurve(MarketDataYieldCurveRequest request) {
-        var entry = getEntry(request);
-        if (entry == null) {
-            return MarketDataYieldCurveResponse.createErrorResponse(String.format("No matching entry found: %s.", request));
-        }
-        return ImmutableMarketDataYieldCurveResponse.builder()
-                .status(OK)
-                .yieldCurveEntry((MarketDataYieldCurve) entry)
-                .build();
+        long startTime = System.nanoTime();
+        var response = snapshot.getYieldCurve(request);
+        recordLookup(request, MarketDataEntryType.YIELD_CURVE, response.status() == OK, startTime);
+        return response;
     }
 
     public MarketDataForwardPriceCurveResponse getForwardPriceCurve(MarketDataForwardPriceCurveRequest request) {
-        var entry = getEntry(request);
-        if (entry == null) {
-            return MarketDataForwardPriceCurveResponse.createErrorResponse(String.format("No matching entry found: %s.", request));
-        }
-        return ImmutableMarketDataForwardPriceCurveResponse.builder()
-                .status(OK)
-                .forwardPriceCurveEntry((MarketDataForwardPriceCurve) entry)
-                .build();
+        long startTime = System.nanoTime();
+        var response = snapshot.getForwardPriceCurve(request);
+        recordLookup(request, MarketDataEntryType.FORWARD_PRICE_CURVE, response.status() == OK, startTime);
+        return response;
     }
 
     public MarketDataImpliedVolatilitySurfaceResponse getImpliedVolatilitySurface(MarketDataImpliedVolatilitySurfaceRequest request) {
-        var entry = getEntry(request);
-        if (entry == null) {
-            return MarketDataImpliedVolatilitySurfaceResponse.createErrorResponse(String.format("No matching entry found: %s.", request));
-        }
-        return ImmutableMarketDataImpliedVolatilitySurfaceResponse.builder()
-                .status(OK)
-                .impliedVolatilitySurfaceEntry((MarketDataImpliedVolatilitySurface) entry)
-                .build();
+        long startTime = System.nanoTime();
+        var response = snapshot.getImpliedVolatilitySurface(request);
+        recordLookup(request, MarketDataEntryType.IMPLIED_VOLATILITY_SURFACE, response.status() == OK, startTime);
+        return response;
     }
 
-    private MarketDataEntry getEntry(MarketDataRequest request) {
-        if (!keyToRepository.containsKey(request.staticKey())) {
-            return null;
-        }
-
-        return keyToRepository.get(request.staticKey()).getEntry(request);
+    private void recordLookup(MarketDataRequest request, MarketDataEntryType entryType, boolean isHit, long startTime) {
+        metrics.record(request.staticKey(), entryType, request.timeFilter(), isHit, System.nanoTime() - startTime);
     }
 }
@@ -0,0 +1,108 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataRequest;
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataForwardPriceCurve;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataImpliedVolatilitySurface;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataYieldCurve;
+import com.herron.exchange.common.api.common.messages.marketdata.requests.MarketDataForwardPriceCurveRequest;
+import com.herron.exchange.common.api.common.messages.marketdata.requests.MarketDataImpliedVolatilitySurfaceRequest;
+import com.herron.exchange.common.api.common.messages.marketdata.requests.MarketDataPriceRequest;
+import com.herron.exchange.common.api.common.messages.marketdata.requests.MarketDataYieldCurveRequest;
+import com.herron.exchange.common.api.common.messages.marketdata.response.*;
+
+import java.util.Map;
+
+import static com.herron.exchange.common.api.common.enums.Status.OK;
+
+/**
+ * Immutable view of all market data as of one epoch. Every write to the {@link MarketDataService} publishes a new
+ * snapshot with a higher epoch, a calculation which pins one snapshot reads all of its inputs from the same point in
+ * time without locking, regardless of concurrent writers.
+ */
+public class MarketDataSnapshot {
+    public static final MarketDataSnapshot EMPTY = new MarketDataSnapshot(0, Map.of(), new MarketDataTimeSeries[0]);
+    private final long epoch;
+    private final Map<StaticKey, Integer> keyToOrdinal;
+    private final MarketDataTimeSeries[] ordinalToTimeSeries;
+
+    /**
+     * The key to ordinal map is shared between snapshots and only grows, ordinals beyond the array of this snapshot
+     * were resolved after it was published and have no data in it.
+     */
+    MarketDataSnapshot(long epoch, Map<StaticKey, Integer> keyToOrdinal, MarketDataTimeSeries[] ordinalToTimeSeries) {
+        this.epoch = epoch;
+        this.keyToOrdinal = keyToOrdinal;
+        this.ordinalToTimeSeries = ordinalToTimeSeries;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public MarketDataTimeSeries getTimeSeries(StaticKey staticKey) {
+        Integer ordinal = keyToOrdinal.get(staticKey);
+        return ordinal == null ? MarketDataTimeSeries.EMPTY : getTimeSeries(ordinal);
+    }
+
+    MarketDataTimeSeries getTimeSeries(int ordinal) {
+        if (ordinal >= ordinalToTimeSeries.length || ordinalToTimeSeries[ordinal] == null) {
+            return MarketDataTimeSeries.EMPTY;
+        }
+        return ordinalToTimeSeries[ordinal];
+    }
+
+    MarketDataTimeSeries[] getOrdinalToTimeSeries() {
+        return ordinalToTimeSeries;
+    }
+
+    public MarketDataEntry getEntry(MarketDataRequest request) {
+        return getTimeSeries(request.staticKey()).getEntry(request);
+    }
+
+    public MarketDataPriceResponse getMarketDataPrice(MarketDataPriceRequest request) {
+        var entry = getEntry(request);
+        if (entry == null) {
+            return MarketDataPriceResponse.createErrorResponse(String.format("No matching entry found: %s.", request));
+        }
+        return ImmutableMarketDataPriceResponse.builder()
+                .status(OK)
+                .marketDataPrice((MarketDataPrice) entry)
+                .build();
+    }
+
+    public MarketDataYieldCurveResponse getYieldCurve(MarketDataYieldCurveRequest request) {
+        var entry = getEntry(request);
+        if (entry == null) {
+            return MarketDataYieldCurveResponse.createErrorResponse(String.format("No matching entry found: %s.", request));
+        }
+        return ImmutableMarketDataYieldCurveResponse.builder()
+                .status(OK)
+                .yieldCurveEntry((MarketDataYieldCurve) entry)
+                .build();
+    }
+
+    public MarketDataForwardPriceCurveResponse getForwardPriceCurve(MarketDataForwardPriceCurveRequest request) {
+        var entry = getEntry(request);
+        if (entry == null) {
+            return MarketDataForwardPriceCurveResponse.createErrorResponse(String.format("No matching entry found: %s.", request));
+        }
+        return ImmutableMarketDataForwardPriceCurveResponse.builder()
+                .status(OK)
+                .forwardPriceCurveEntry((MarketDataForwardPriceCurve) entry)
+                .build();
+    }
+
+    public MarketDataImpliedVolatilitySurfaceResponse getImpliedVolatilitySurface(MarketDataImpliedVolatilitySurfaceRequest request) {
+        var entry = getEntry(request);
+        if (entry == null) {
+            return MarketDataImpliedVolatilitySurfaceResponse.createErrorResponse(String.format("No matching entry found: %s.", request));
+        }
+        return ImmutableMarketDataImpliedVolatilitySurfaceResponse.builder()
+                .status(OK)
+                .impliedVolatilitySurfaceEntry((MarketDataImpliedVolatilitySurface) entry)
+                .build();
+    }
+}
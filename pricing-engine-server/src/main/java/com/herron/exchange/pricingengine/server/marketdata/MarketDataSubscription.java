@@ -0,0 +1,43 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+
+import java.util.Set;
+
+/**
+ * A listener registered with {@link MarketDataService#subscribe}, closing it stops further notifications.
+ */
+public final class MarketDataSubscription implements AutoCloseable {
+    private final MarketDataChangeDispatcher changeDispatcher;
+    private final Set<StaticKey> staticKeys;
+    private final Set<MarketDataEntryType> entryTypes;
+    private final MarketDataChangeListener listener;
+
+    MarketDataSubscription(MarketDataChangeDispatcher changeDispatcher,
+                           Set<StaticKey> staticKeys,
+                           Set<MarketDataEntryType> entryTypes,
+                           MarketDataChangeListener listener) {
+        this.changeDispatcher = changeDispatcher;
+        this.staticKeys = staticKeys;
+        this.entryTypes = entryTypes;
+        this.listener = listener;
+    }
+
+    boolean matches(StaticKey staticKey) {
+        return staticKeys.contains(staticKey) || entryTypes.contains(MarketDataEntryType.from(staticKey));
+    }
+
+    MarketDataChangeListener getListener() {
+        return listener;
+    }
+
+    @Override
+    public void close() {
+        changeDispatcher.unsubscribe(this);
+    }
+
+    @Override
+    public String toString() {
+        return "MarketDataSubscription[staticKeys=" + staticKeys + ", entryTypes=" + entryTypes + "]";
+    }
+}
@@ -0,0 +1,173 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataRequest;
+import com.herron.exchange.common.api.common.api.marketdata.TimeComponentKey;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Immutable time series of the entries of one static key, sorted by time of event.
+ * The times are kept as epoch nanos in a primitive array with the entries in a parallel array, so every time filter
+ * is a binary search without allocation. An entry with the same time as an existing one replaces it.
+ * Appending in time order writes into spare capacity of the shared arrays, older series never read past their size
+ * so they are unaffected. Adding must be done by a single writer at a time.
+ */
+public final class MarketDataTimeSeries {
+    public static final MarketDataTimeSeries EMPTY = new MarketDataTimeSeries(new Storage(0), 0);
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    private static final int MIN_CAPACITY = 16;
+    private final Storage storage;
+    private final int size;
+
+    private MarketDataTimeSeries(Storage storage, int size) {
+        this.storage = storage;
+        this.size = size;
+    }
+
+    public MarketDataTimeSeries add(MarketDataEntry entry) {
+        long time = toEpochNanos(entry.timeComponentKey());
+        int index = Arrays.binarySearch(storage.times, 0, size, time);
+        if (index >= 0) {
+            var replaced = storage.copy(size, storage.times.length);
+            replaced.entries[index] = entry;
+            return new MarketDataTimeSeries(replaced, size);
+        }
+
+        int insertionPoint = -index - 1;
+        if (insertionPoint == size && storage.used == size && size < storage.times.length) {
+            storage.times[size] = time;
+            storage.entries[size] = entry;
+            storage.used++;
+            return new MarketDataTimeSeries(storage, size + 1);
+        }
+
+        var inserted = new Storage(Math.max(MIN_CAPACITY, size + (size >> 1) + 1));
+        System.arraycopy(storage.times, 0, inserted.times, 0, insertionPoint);
+        System.arraycopy(storage.entries, 0, inserted.entries, 0, insertionPoint);
+        inserted.times[insertionPoint] = time;
+        inserted.entries[insertionPoint] = entry;
+        System.arraycopy(storage.times, insertionPoint, inserted.times, insertionPoint + 1, size - insertionPoint);
+        System.arraycopy(storage.entries, insertionPoint, inserted.entries, insertionPoint + 1, size - insertionPoint);
+        inserted.used = size + 1;
+        return new MarketDataTimeSeries(inserted, size + 1);
+    }
+
+    /**
+     * Returns a series without the entries older than the time and with at most the given number of newest entries,
+     * 0 disables the limit. The newest entry is always kept, if nothing is evicted this series is returned.
+     */
+    public MarketDataTimeSeries retain(long fromEpochNanos, int maxEntries) {
+        int start = Math.min(ceilingIndex(fromEpochNanos), size - 1);
+        if (maxEntries > 0) {
+            start = Math.max(start, size - maxEntries);
+        }
+        if (start <= 0) {
+            return this;
+        }
+        int retainedSize = size - start;
+        var retained = new Storage(Math.max(MIN_CAPACITY, retainedSize));
+        System.arraycopy(storage.times, start, retained.times, 0, retainedSize);
+        System.arraycopy(storage.entries, start, retained.entries, 0, retainedSize);
+        retained.used = retainedSize;
+        return new MarketDataTimeSeries(retained, retainedSize);
+    }
+
+    public MarketDataEntry getEntry(MarketDataRequest request) {
+        var timeComponentKey = request.timeComponentKey();
+        return switch (request.timeFilter()) {
+            case LATEST -> getLatest();
+            case MATCH_DATE -> firstOnDate(timeComponentKey.date());
+            case MATCH_TIME -> exactMatch(toEpochNanos(LocalDate.now(), timeComponentKey.time()));
+            case MATCH_OR_FIRST_PRIOR -> matchOrFirstPrior(toEpochNanos(timeComponentKey));
+            case MATCH_DATE_AND_TIME -> exactMatch(toEpochNanos(timeComponentKey));
+        };
+    }
+
+    public MarketDataEntry getLatest() {
+        return size == 0 ? null : storage.entries[size - 1];
+    }
+
+    /**
+     * Returns the entry at the time or the closest one before it, null if all entries are later.
+     */
+    public MarketDataEntry getMatchOrFirstPrior(TimeComponentKey timeComponentKey) {
+        return matchOrFirstPrior(toEpochNanos(timeComponentKey));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Number of slots allocated for this series, including spare capacity shared with newer series.
+     */
+    int capacity() {
+        return storage.times.length;
+    }
+
+    /**
+     * Returns the entry at the position in time order, 0 is the oldest.
+     */
+    public MarketDataEntry get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return storage.entries[index];
+    }
+
+    private MarketDataEntry firstOnDate(LocalDate date) {
+        long startOfDay = date.toEpochDay() * NANOS_PER_DAY;
+        int index = ceilingIndex(startOfDay);
+        return index < size && storage.times[index] < startOfDay + NANOS_PER_DAY ? storage.entries[index] : null;
+    }
+
+    private MarketDataEntry exactMatch(long time) {
+        int index = Arrays.binarySearch(storage.times, 0, size, time);
+        return index >= 0 ? storage.entries[index] : null;
+    }
+
+    private MarketDataEntry matchOrFirstPrior(long time) {
+        int index = Arrays.binarySearch(storage.times, 0, size, time);
+        int floorIndex = index >= 0 ? index : -index - 2;
+        return floorIndex >= 0 ? storage.entries[floorIndex] : null;
+    }
+
+    private int ceilingIndex(long time) {
+        int index = Arrays.binarySearch(storage.times, 0, size, time);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    static long toEpochNanos(TimeComponentKey timeComponentKey) {
+        return toEpochNanos(timeComponentKey.date(), timeComponentKey.time());
+    }
+
+    static long toEpochNanos(LocalDate date, LocalTime time) {
+        return date.toEpochDay() * NANOS_PER_DAY + time.toNanoOfDay();
+    }
+
+    private static final class Storage {
+        private final long[] times;
+        private final MarketDataEntry[] entries;
+        private int used;
+
+        private Storage(int capacity) {
+            this.times = new long[capacity];
+            this.entries = new MarketDataEntry[capacity];
+        }
+
+        private Storage copy(int size, int capacity) {
+            var copy = new Storage(Math.max(MIN_CAPACITY, capacity));
+            System.arraycopy(times, 0, copy.times, 0, size);
+            System.arraycopy(entries, 0, copy.entries, 0, size);
+            copy.used = size;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * How much history to keep per static key. Entries dated before the last {@code maxBusinessDays} business days are
+ * evicted and at most {@code maxEntries} of the newest entries are kept, 0 disables the respective limit.
+ * The newest entry is always kept so the latest value of a key is never lost.
+ */
+public record RetentionPolicy(int maxBusinessDays, int maxEntries) {
+    public static final RetentionPolicy UNLIMITED = new RetentionPolicy(0, 0);
+
+    public boolean isUnlimited() {
+        return maxBusinessDays <= 0 && maxEntries <= 0;
+    }
+
+    /**
+     * Returns the oldest time to keep as epoch nanos, weekends do not count as business days.
+     */
+    public long getRetainFromEpochNanos(LocalDate today) {
+        if (maxBusinessDays <= 0) {
+            return Long.MIN_VALUE;
+        }
+        var date = today;
+        for (int businessDays = 1; businessDays < maxBusinessDays; ) {
+            date = date.minusDays(1);
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                businessDays++;
+            }
+        }
+        return MarketDataTimeSeries.toEpochNanos(date, LocalTime.MIDNIGHT);
+    }
+}
@@ -0,0 +1,51 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataRequest;
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+
+/**
+ * Guards all reads and writes with the repository monitor, readers block each other and the writer.
+ */
+public class SynchronizedMarketDataRepository implements MarketDataRepository {
+    private final StaticKey staticKey;
+    private MarketDataTimeSeries timeSeries = MarketDataTimeSeries.EMPTY;
+    private volatile long version = 0;
+
+    public SynchronizedMarketDataRepository(StaticKey staticKey) {
+        this.staticKey = staticKey;
+    }
+
+    @Override
+    public synchronized void addEntry(MarketDataEntry entry) {
+        timeSeries = timeSeries.add(entry);
+        version++;
+    }
+
+    @Override
+    public synchronized MarketDataEntry getEntry(MarketDataRequest request) {
+        return timeSeries.getEntry(request);
+    }
+
+    @Override
+    public synchronized MarketDataTimeSeries getTimeSeries() {
+        return timeSeries;
+    }
+
+    @Override
+    public synchronized int retain(long fromEpochNanos, int maxEntries) {
+        int sizeBefore = timeSeries.size();
+        timeSeries = timeSeries.retain(fromEpochNanos, maxEntries);
+        return sizeBefore - timeSeries.size();
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "SynchronizedMarketDataRepository[" + staticKey + "]";
+    }
+}
@@ -24,7 +24,11 @@ public class ExternalMarketDataHandler {
         return eurexPreviousDaySettlementHandler.getPreviousDaySettlementPrices();
     }
 
-    public List<MarketDataYieldCurve> getYieldCurves(LocalDate from, LocalDate to) {
-        return nasdaqYieldCurveHandler.getYieldCurves(from, to);
+    public List<YieldCurvePoints> getYieldCurvePoints(LocalDate from, LocalDate to) {
+        return nasdaqYieldCurveHandler.getYieldCurvePoints(from, to);
+    }
+
+    public List<MarketDataYieldCurve> createYieldCurves(List<YieldCurvePoints> yieldCurvePoints) {
+        return yieldCurvePoints.stream().map(NasdaqYieldCurveHandler::createYieldCurve).toList();
     }
 }
@@ -0,0 +1,20 @@
+package com.herron.exchange.pricingengine.server.marketdata.external;
+
+import java.time.LocalDate;
+
+/**
+ * The maturity dates and yields a yield curve is fitted to, as reported by the source. The curve itself has no binary
+ * format, it is rebuilt from its points.
+ */
+public record YieldCurvePoints(String curveId, LocalDate startDate, LocalDate[] maturityDates, double[] yields) {
+
+    public YieldCurvePoints {
+        if (maturityDates.length != yields.length) {
+            throw new IllegalArgumentException(String.format("Curve %s has %s maturities but %s yields.", curveId, maturityDates.length, yields.length));
+        }
+    }
+
+    public int nrOfPoints() {
+        return maturityDates.length;
+    }
+}
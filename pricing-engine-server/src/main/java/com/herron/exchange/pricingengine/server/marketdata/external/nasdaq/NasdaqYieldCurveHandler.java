@@ -10,6 +10,7 @@ import com.herron.exchange.common.api.common.messages.marketdata.entries.Immutab
 import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataYieldCurve;
 import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataYieldCurveStaticKey;
 import com.herron.exchange.integrations.nasdaq.NasdaqYieldCurveClient;
+import com.herron.exchange.pricingengine.server.marketdata.external.YieldCurvePoints;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -22,25 +23,28 @@ public class NasdaqYieldCurveHandler {
         this.client = client;
     }
 
-    public List<MarketDataYieldCurve> getYieldCurves(LocalDate from, LocalDate to) {
+    public List<YieldCurvePoints> getYieldCurvePoints(LocalDate from, LocalDate to) {
         var data = client.requestYieldCurveData(from, to);
         var dataset = data.dataset();
         return dataset.getDataToYieldItems().stream()
-                .map(item -> YieldCurveModelParameters.create(
-                        DayCountConventionEnum.ACT365,
-                        InterpolationMethod.CUBIC_SPLINE,
-                        item.date(),
-                        item.maturityDates()[item.maturityDates().length - 1],
-                        item.maturityDates(),
-                        item.yieldValues()
-                ))
-                .map(parameters -> YieldCurve.create(YIELD_CURVE_ID, parameters))
-                .<MarketDataYieldCurve>map(curve ->
-                        ImmutableMarketDataYieldCurve.builder()
-                                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(curve.getYieldCurveModelParameters().startDate())).build())
-                                .staticKey(ImmutableMarketDataYieldCurveStaticKey.builder().curveId(curve.getId()).build())
-                                .yieldCurve(curve)
-                                .build())
+                .map(item -> new YieldCurvePoints(YIELD_CURVE_ID, item.date(), item.maturityDates(), item.yieldValues()))
                 .toList();
     }
+
+    public static MarketDataYieldCurve createYieldCurve(YieldCurvePoints points) {
+        var parameters = YieldCurveModelParameters.create(
+                DayCountConventionEnum.ACT365,
+                InterpolationMethod.CUBIC_SPLINE,
+                points.startDate(),
+                points.maturityDates()[points.nrOfPoints() - 1],
+                points.maturityDates(),
+                points.yields()
+        );
+        var curve = YieldCurve.create(points.curveId(), parameters);
+        return ImmutableMarketDataYieldCurve.builder()
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(curve.getYieldCurveModelParameters().startDate())).build())
+                .staticKey(ImmutableMarketDataYieldCurveStaticKey.builder().curveId(curve.getId()).build())
+                .yieldCurve(curve)
+                .build();
+    }
 }
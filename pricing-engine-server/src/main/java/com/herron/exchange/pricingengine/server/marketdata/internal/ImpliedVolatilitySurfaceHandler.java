@@ -2,128 +2,95 @@ package com.herron.exchange.pricingengine.server.marketdata.internal;
 
 import com.herron.exchange.common.api.common.api.referencedata.instruments.Instrument;
 import com.herron.exchange.common.api.common.api.referencedata.instruments.OptionInstrument;
-import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
-import com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter;
-import com.herron.exchange.common.api.common.math.parametricmodels.yieldcurve.YieldCurve;
-import com.herron.exchange.common.api.common.messages.common.Price;
-import com.herron.exchange.common.api.common.messages.common.Timestamp;
-import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataForwardPriceCurve;
 import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataImpliedVolatilitySurface;
-import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataForwardPriceCurveRequest;
-import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataPriceRequest;
-import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataYieldCurveRequest;
-import com.herron.exchange.common.api.common.messages.marketdata.response.MarketDataForwardPriceCurveResponse;
-import com.herron.exchange.common.api.common.messages.marketdata.response.MarketDataPriceResponse;
-import com.herron.exchange.common.api.common.messages.marketdata.response.MarketDataYieldCurveResponse;
-import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataForwardPriceCurveStaticKey;
-import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
-import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataYieldCurveStaticKey;
 import com.herron.exchange.pricingengine.server.marketdata.MarketDataService;
-import com.herron.exchange.pricingengine.server.marketdata.external.nasdaq.NasdaqYieldCurveHandler;
 import com.herron.exchange.quantlib.parametricmodels.ivsurface.ImpliedVolatilityConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-import static com.herron.exchange.common.api.common.enums.Status.ERROR;
-import static com.herron.exchange.common.api.common.enums.Status.OK;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 
 public class ImpliedVolatilitySurfaceHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(ImpliedVolatilitySurfaceHandler.class);
     private final MarketDataService marketDataService;
-
-    public ImpliedVolatilitySurfaceHandler(MarketDataService marketDataService) {
+    private final ForkJoinPool constructionPool;
+
+    /**
+     * Surfaces of different underlyings are independent and constructed in parallel. Construction runs next to the
+     * snapshot workers, which by default take one thread per available processor, so the parallelism should be sized
+     * well below the worker pool. A parallelism of 0 uses a quarter of the available processors.
+     */
+    public ImpliedVolatilitySurfaceHandler(MarketDataService marketDataService, int parallelism) {
         this.marketDataService = marketDataService;
+        this.constructionPool = new ForkJoinPool(parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 4));
     }
 
-    public List<MarketDataImpliedVolatilitySurface> createSurfaces(Timestamp valuationTime) {
-        LOGGER.info("Creating implied volatility surface for {}.", valuationTime);
-
-        List<OptionInstrument> options = ReferenceDataCache.getCache().getInstruments().stream()
-                .filter(OptionInstrument.class::isInstance)
-                .map(OptionInstrument.class::cast)
-                .toList();
-
-        Map<Instrument, List<OptionInstrument>> underlyingInstrumentToOptions = new HashMap<>();
-        Map<Instrument, Price> instrumentToPrice = new HashMap<>();
-        for (var option : options) {
-            var optionPrice = requestPrice(option, valuationTime);
-            if (optionPrice.status() == ERROR) {
-                LOGGER.warn("Removing {} price not found.", option);
-                continue;
-            }
-
-            var underlying = ReferenceDataCache.getCache().getInstrument(option.underlyingInstrumentId());
-            if (!instrumentToPrice.containsKey(underlying)) {
-                var underlyingPrice = requestPrice(underlying, valuationTime);
-                if (underlyingPrice.status() == ERROR) {
-                    LOGGER.error("Removing {} price not found.", underlying);
-                    continue;
-                }
-                instrumentToPrice.putIfAbsent(underlying, underlyingPrice.marketDataPrice().price());
-            }
+    public void stop() {
+        constructionPool.shutdown();
+    }
 
-            underlyingInstrumentToOptions.computeIfAbsent(underlying, k -> new ArrayList<>()).add(option);
-            instrumentToPrice.putIfAbsent(option, optionPrice.marketDataPrice().price());
+    /**
+     * Constructs the surfaces from the option chains, using the forward curves just built from the same chains.
+     * Underlyings without a new forward curve fall back to the one in the snapshot of the option chains.
+     */
+    public List<MarketDataImpliedVolatilitySurface> createSurfaces(OptionChainDataset optionChains,
+                                                                   Collection<MarketDataForwardPriceCurve> forwardPriceCurves) {
+        LOGGER.info("Creating implied volatility surface for {}.", optionChains.valuationTime());
+        if (!optionChains.hasYieldCurve()) {
+            return List.of();
         }
 
-        var yieldCurveResponse = requestYieldCurve(valuationTime);
-        if (yieldCurveResponse.status() == ERROR) {
-            LOGGER.error("Yield curve not found.", yieldCurveResponse);
-            return List.of();
+        Map<String, MarketDataForwardPriceCurve> underlyingIdToForwardPriceCurve = new HashMap<>();
+        for (var forwardPriceCurve : forwardPriceCurves) {
+            underlyingIdToForwardPriceCurve.put(forwardPriceCurve.staticKey().instrumentId(), forwardPriceCurve);
         }
-        return constructSurfaces(valuationTime, underlyingInstrumentToOptions, instrumentToPrice, yieldCurveResponse.yieldCurveEntry().yieldCurve());
-    }
 
-    private List<MarketDataImpliedVolatilitySurface> constructSurfaces(Timestamp valuationTime,
-                                                                       Map<Instrument, List<OptionInstrument>> underlyingInstrumentToOptions,
-                                                                       Map<Instrument, Price> instrumentToPrice,
-                                                                       YieldCurve yieldCurve) {
-        List<MarketDataImpliedVolatilitySurface> ivSurfaces = new ArrayList<>();
-        for (var entry : underlyingInstrumentToOptions.entrySet()) {
+        long startTime = System.nanoTime();
+        Map<Instrument, ForkJoinTask<MarketDataImpliedVolatilitySurface>> underlyingToTask = new HashMap<>();
+        for (var entry : optionChains.underlyingInstrumentToOptions().entrySet()) {
             var underlying = entry.getKey();
-            var forwardCurveResponse = requestForwardPriceCurve(underlying.instrumentId(), valuationTime);
-            var forwardCurve = forwardCurveResponse.status() == OK ? forwardCurveResponse.forwardPriceCurveEntry().forwardPriceCurve() : null;
             var options = entry.getValue();
-            var surface = ImpliedVolatilityConstructor.construct(valuationTime, underlying, options, instrumentToPrice, yieldCurve, forwardCurve);
-            ivSurfaces.add(MarketDataImpliedVolatilitySurface.create(valuationTime, underlying.instrumentId(), surface));
+            var forwardPriceCurve = underlyingIdToForwardPriceCurve.get(underlying.instrumentId());
+            underlyingToTask.put(underlying, constructionPool.submit(() ->
+                    constructSurface(optionChains, underlying, options, forwardPriceCurve)
+            ));
         }
-        return ivSurfaces;
-    }
-
-    private MarketDataForwardPriceCurveResponse requestForwardPriceCurve(String underlyingInstrumentId, Timestamp valuationTime) {
-        var request = ImmutableMarketDataForwardPriceCurveRequest.builder()
-                .staticKey(ImmutableMarketDataForwardPriceCurveStaticKey.builder().instrumentId(underlyingInstrumentId).build())
-                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(valuationTime).build())
-                .timeFilter(MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR)
-                .build();
-
-        return marketDataService.getForwardPriceCurve(request);
-    }
 
-    private MarketDataYieldCurveResponse requestYieldCurve(Timestamp valuationTime) {
-        var request = ImmutableMarketDataYieldCurveRequest.builder()
-                .staticKey(ImmutableMarketDataYieldCurveStaticKey.builder().curveId(NasdaqYieldCurveHandler.YIELD_CURVE_ID).build())
-                .timeFilter(MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR)
-                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(valuationTime).build())
-                .build();
-
-        return marketDataService.getYieldCurve(request);
+        List<MarketDataImpliedVolatilitySurface> ivSurfaces = new ArrayList<>();
+        for (var entry : underlyingToTask.entrySet()) {
+            try {
+                ivSurfaces.add(entry.getValue().join());
+            } catch (Exception e) {
+                LOGGER.error("Failed to construct implied volatility surface for {}.", entry.getKey(), e);
+            }
+        }
+        LOGGER.info("Constructed {} of {} implied volatility surfaces in {}ms with parallelism {}.",
+                ivSurfaces.size(),
+                underlyingToTask.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                constructionPool.getParallelism());
+        return ivSurfaces;
     }
 
-    private MarketDataPriceResponse requestPrice(Instrument instrument, Timestamp valuationTime) {
-        if (instrument == null) {
-            return MarketDataPriceResponse.createErrorResponse("");
+    private MarketDataImpliedVolatilitySurface constructSurface(OptionChainDataset optionChains,
+                                                                Instrument underlying,
+                                                                List<OptionInstrument> options,
+                                                                MarketDataForwardPriceCurve forwardCurveEntry) {
+        long startTime = System.nanoTime();
+        if (forwardCurveEntry == null) {
+            forwardCurveEntry = marketDataService.resolveForwardPriceCurve(underlying.instrumentId()).asOf(optionChains.snapshot(), optionChains.timeComponentKey());
         }
-        var request = ImmutableMarketDataPriceRequest.builder()
-                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrument.instrumentId()).build())
-                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(valuationTime).build())
-                .timeFilter(MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR)
-                .build();
-        return marketDataService.getMarketDataPrice(request);
+        var forwardCurve = forwardCurveEntry != null ? forwardCurveEntry.forwardPriceCurve() : null;
+        var valuationTime = optionChains.valuationTime();
+        var surface = ImpliedVolatilityConstructor.construct(valuationTime, underlying, options, optionChains.instrumentToPrice(), optionChains.yieldCurve(), forwardCurve);
+        LOGGER.info("Constructed implied volatility surface for {} from {} options in {}ms.",
+                underlying.instrumentId(),
+                options.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        return MarketDataImpliedVolatilitySurface.create(valuationTime, underlying.instrumentId(), surface);
     }
 }
@@ -0,0 +1,109 @@
+package com.herron.exchange.pricingengine.server.marketdata.internal;
+
+import com.herron.exchange.common.api.common.api.marketdata.TimeComponentKey;
+import com.herron.exchange.common.api.common.api.referencedata.instruments.Instrument;
+import com.herron.exchange.common.api.common.api.referencedata.instruments.OptionInstrument;
+import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
+import com.herron.exchange.common.api.common.math.parametricmodels.yieldcurve.YieldCurve;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataService;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataSnapshot;
+import com.herron.exchange.pricingengine.server.marketdata.external.nasdaq.NasdaqYieldCurveHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+import static com.herron.exchange.common.api.common.enums.PriceType.THEORETICAL;
+
+/**
+ * The options grouped by underlying together with their prices and the yield curve at a valuation time, gathered once
+ * from a single snapshot and shared by the forward curve and implied volatility surface construction.
+ * Options without a price, or whose underlying has no price, are left out.
+ */
+public record OptionChainDataset(Timestamp valuationTime,
+                                 MarketDataSnapshot snapshot,
+                                 TimeComponentKey timeComponentKey,
+                                 Map<Instrument, List<OptionInstrument>> underlyingInstrumentToOptions,
+                                 Map<Instrument, Price> instrumentToPrice,
+                                 YieldCurve yieldCurve) {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OptionChainDataset.class);
+
+    public static OptionChainDataset gather(MarketDataService marketDataService, Timestamp valuationTime) {
+        List<OptionInstrument> options = ReferenceDataCache.getCache().getInstruments().stream()
+                .filter(OptionInstrument.class::isInstance)
+                .map(OptionInstrument.class::cast)
+                .toList();
+        return gather(marketDataService, valuationTime, options);
+    }
+
+    /**
+     * Gathers only the given options, so the cost of rebuilding a few underlyings does not depend on the number of
+     * instruments in the reference data. Curves and surfaces are calibrated to observed prices only, an instrument whose
+     * price is theoretical is treated as having no price.
+     */
+    public static OptionChainDataset gather(MarketDataService marketDataService, Timestamp valuationTime, List<OptionInstrument> options) {
+        LOGGER.info("Gathering option chains of {} options for {}.", options.size(), valuationTime);
+        var snapshot = marketDataService.snapshot();
+        var timeComponentKey = ImmutableDefaultTimeComponentKey.builder().timeOfEvent(valuationTime).build();
+        Map<Instrument, List<OptionInstrument>> underlyingInstrumentToOptions = new HashMap<>();
+        Map<Instrument, Price> instrumentToPrice = new HashMap<>();
+        var instrumentIdToPrice = marketDataService.getMarketDataPrices(snapshot, getInstrumentIds(options), timeComponentKey);
+        for (var option : options) {
+            var optionPrice = getObservedPrice(instrumentIdToPrice, option.instrumentId());
+            if (optionPrice == null) {
+                LOGGER.warn("Removing {} price not found.", option);
+                continue;
+            }
+
+            var underlying = ReferenceDataCache.getCache().getInstrument(option.underlyingInstrumentId());
+            if (!instrumentToPrice.containsKey(underlying)) {
+                var underlyingPrice = underlying == null ? null : getObservedPrice(instrumentIdToPrice, underlying.instrumentId());
+                if (underlyingPrice == null) {
+                    LOGGER.warn("Removing {} price not found.", underlying);
+                    continue;
+                }
+                instrumentToPrice.putIfAbsent(underlying, underlyingPrice.price());
+            }
+
+            underlyingInstrumentToOptions.computeIfAbsent(underlying, k -> new ArrayList<>()).add(option);
+            instrumentToPrice.putIfAbsent(option, optionPrice.price());
+        }
+
+        var yieldCurve = marketDataService.resolveYieldCurve(NasdaqYieldCurveHandler.YIELD_CURVE_ID).asOf(snapshot, timeComponentKey);
+        if (yieldCurve == null) {
+            LOGGER.error("Yield curve not found.");
+        }
+        return new OptionChainDataset(
+                valuationTime,
+                snapshot,
+                timeComponentKey,
+                underlyingInstrumentToOptions,
+                instrumentToPrice,
+                yieldCurve != null ? yieldCurve.yieldCurve() : null
+        );
+    }
+
+    public boolean hasYieldCurve() {
+        return yieldCurve != null;
+    }
+
+    private static Set<String> getInstrumentIds(List<OptionInstrument> options) {
+        Set<String> instrumentIds = new HashSet<>();
+        for (var option : options) {
+            instrumentIds.add(option.instrumentId());
+            if (option.underlyingInstrumentId() != null) {
+                instrumentIds.add(option.underlyingInstrumentId());
+            }
+        }
+        return instrumentIds;
+    }
+
+    private static MarketDataPrice getObservedPrice(Map<String, MarketDataPrice> instrumentIdToPrice, String instrumentId) {
+        var price = instrumentIdToPrice.get(instrumentId);
+        return price == null || price.priceType() == THEORETICAL ? null : price;
+    }
+}
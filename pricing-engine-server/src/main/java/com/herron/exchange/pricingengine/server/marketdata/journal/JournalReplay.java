@@ -0,0 +1,15 @@
+package com.herron.exchange.pricingengine.server.marketdata.journal;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.pricingengine.server.marketdata.external.YieldCurvePoints;
+
+import java.util.List;
+import java.util.Set;
+
+public record JournalReplay(List<MarketDataEntry> entries, List<YieldCurvePoints> yieldCurvePoints, Set<String> checkpoints) {
+    public static final JournalReplay EMPTY = new JournalReplay(List.of(), List.of(), Set.of());
+
+    public boolean hasCheckpoint(String source) {
+        return checkpoints.contains(source);
+    }
+}
@@ -0,0 +1,55 @@
+package com.herron.exchange.pricingengine.server.marketdata.journal;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.pricingengine.server.marketdata.external.YieldCurvePoints;
+
+import java.util.Collection;
+
+/**
+ * Append only record of market data writes, replayed at startup to rebuild the repositories without fetching
+ * everything again.
+ */
+public interface MarketDataJournal {
+
+    MarketDataJournal NONE = new MarketDataJournal() {
+        @Override
+        public JournalReplay replay() {
+            return JournalReplay.EMPTY;
+        }
+
+        @Override
+        public void append(Collection<? extends MarketDataEntry> entries) {
+        }
+
+        @Override
+        public void appendYieldCurvePoints(Collection<YieldCurvePoints> yieldCurvePoints) {
+        }
+
+        @Override
+        public void checkpoint(String source) {
+        }
+    };
+
+    /**
+     * Returns all entries and checkpoints written so far, must be called before appending.
+     */
+    JournalReplay replay();
+
+    /**
+     * Appends the entries which the journal can encode, others are skipped.
+     */
+    void append(Collection<? extends MarketDataEntry> entries);
+
+    /**
+     * Appends the points of yield curves, the curves are rebuilt from them on replay.
+     */
+    void appendYieldCurvePoints(Collection<YieldCurvePoints> yieldCurvePoints);
+
+    /**
+     * Marks that everything from the source has been appended, a restart can then skip loading the source.
+     */
+    void checkpoint(String source);
+
+    default void close() {
+    }
+}
@@ -0,0 +1,191 @@
+package com.herron.exchange.pricingengine.server.marketdata.journal;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.pricingengine.server.codec.JournalCheckpointCodec;
+import com.herron.exchange.pricingengine.server.codec.MarketDataPriceCodec;
+import com.herron.exchange.pricingengine.server.codec.MarketDataPriceDecoder;
+import com.herron.exchange.pricingengine.server.codec.MessageHeader;
+import com.herron.exchange.pricingengine.server.codec.YieldCurvePointsCodec;
+import com.herron.exchange.pricingengine.server.marketdata.external.YieldCurvePoints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Journal in a memory mapped file of fixed capacity, one file per business date so a restart only replays the current
+ * day. Records are framed as
+ * <pre>
+ * 0  length    int32  length of the message
+ * 4  checksum  int32  CRC32 of the message
+ * 8  message   binary message starting with a {@link MessageHeader}
+ * </pre>
+ * The length is written last, a record torn by a crash reads as length 0 or fails the checksum and ends the replay.
+ * Writes survive a process crash through the page cache, checkpoints also force the file to disk.
+ * Only {@link MarketDataPrice} entries and the {@link YieldCurvePoints} of yield curves are journaled, the other curves
+ * and surfaces have no binary format and are rebuilt. Event times are journaled in epoch milliseconds, replayed prices
+ * lose any sub-millisecond precision of their event time.
+ */
+public class MemoryMappedMarketDataJournal implements MarketDataJournal {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryMappedMarketDataJournal.class);
+    private static final int MAGIC = 0x4A444D48;
+    private static final int FILE_HEADER_LENGTH = 8;
+    private static final int RECORD_HEADER_LENGTH = 8;
+    private final Path directory;
+    private final Supplier<LocalDate> businessDate;
+    private final int capacity;
+    private final CRC32 crc = new CRC32();
+    private Path file;
+    private MappedByteBuffer buffer;
+    private int position;
+    private boolean full;
+
+    public MemoryMappedMarketDataJournal(Path directory, LocalDate businessDate, int capacity) {
+        this(directory, () -> businessDate, capacity);
+    }
+
+    /**
+     * The file is resolved on every {@link #replay()}, so a service initialized again on a later business date starts
+     * the journal of that date instead of appending to the one of the day it was created.
+     */
+    public MemoryMappedMarketDataJournal(Path directory, Supplier<LocalDate> businessDate, int capacity) {
+        this.directory = directory;
+        this.businessDate = businessDate;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized JournalReplay replay() {
+        map(directory.resolve(String.format("market-data-%s.journal", businessDate.get())));
+        if (buffer.getInt(0) != MAGIC) {
+            LOGGER.info("Starting new market data journal {}.", file);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, MessageHeader.SCHEMA_VERSION);
+            return JournalReplay.EMPTY;
+        }
+
+        List<MarketDataEntry> entries = new ArrayList<>();
+        List<YieldCurvePoints> yieldCurvePoints = new ArrayList<>();
+        Set<String> checkpoints = new HashSet<>();
+        var decoder = new MarketDataPriceDecoder();
+        while (position + RECORD_HEADER_LENGTH <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            int messageOffset = position + RECORD_HEADER_LENGTH;
+            if (length < MessageHeader.ENCODED_LENGTH || messageOffset + length > buffer.capacity() || buffer.getInt(position + 4) != checksum(messageOffset, length)) {
+                break;
+            }
+            int bodyOffset = messageOffset + MessageHeader.ENCODED_LENGTH;
+            switch (MessageHeader.templateId(buffer, messageOffset)) {
+                case MarketDataPriceCodec.TEMPLATE_ID -> entries.add(decoder.wrap(buffer, bodyOffset).toMarketDataPrice());
+                case YieldCurvePointsCodec.TEMPLATE_ID -> yieldCurvePoints.add(YieldCurvePointsCodec.decode(buffer, bodyOffset));
+                case JournalCheckpointCodec.TEMPLATE_ID -> checkpoints.add(JournalCheckpointCodec.decodeSource(buffer, bodyOffset));
+                default -> LOGGER.warn("Skipping unknown template {} in market data journal {}.", MessageHeader.templateId(buffer, messageOffset), file);
+            }
+            position = messageOffset + length;
+        }
+        clearTail();
+        LOGGER.info("Replayed {} entries, {} yield curves and checkpoints {} from market data journal {}.", entries.size(), yieldCurvePoints.size(), checkpoints, file);
+        return new JournalReplay(entries, yieldCurvePoints, checkpoints);
+    }
+
+    @Override
+    public synchronized void append(Collection<? extends MarketDataEntry> entries) {
+        ensureReplayed();
+        for (var entry : entries) {
+            if (entry instanceof MarketDataPrice price) {
+                write(MarketDataPriceCodec.encode(price));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void appendYieldCurvePoints(Collection<YieldCurvePoints> yieldCurvePoints) {
+        ensureReplayed();
+        for (var points : yieldCurvePoints) {
+            write(YieldCurvePointsCodec.encode(points));
+        }
+    }
+
+    @Override
+    public synchronized void checkpoint(String source) {
+        ensureReplayed();
+        write(JournalCheckpointCodec.encode(source));
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    public synchronized int getPosition() {
+        return position;
+    }
+
+    private void map(Path journalFile) {
+        close();
+        try {
+            Files.createDirectories(directory);
+            try (var channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to map market data journal %s.", journalFile), e);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        file = journalFile;
+        position = FILE_HEADER_LENGTH;
+        full = false;
+    }
+
+    private void write(byte[] message) {
+        int messageOffset = position + RECORD_HEADER_LENGTH;
+        if (messageOffset + message.length > buffer.capacity()) {
+            if (!full) {
+                LOGGER.error("Market data journal {} is full at {} bytes, further entries are not journaled.", file, position);
+                full = true;
+            }
+            return;
+        }
+        buffer.put(messageOffset, message);
+        buffer.putInt(position + 4, checksum(messageOffset, message.length));
+        buffer.putInt(position, message.length);
+        position = messageOffset + message.length;
+    }
+
+    private int checksum(int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Zeroes what is left of a torn record so the next append starts on a clean frame.
+     */
+    private void clearTail() {
+        int end = Math.min(buffer.capacity(), position + RECORD_HEADER_LENGTH);
+        for (int i = position; i < end; i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    private void ensureReplayed() {
+        if (buffer == null) {
+            throw new IllegalStateException("Market data journal must be replayed before appending.");
+        }
+    }
+}
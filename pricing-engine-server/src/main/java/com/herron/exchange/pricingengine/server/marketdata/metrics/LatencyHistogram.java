@@ -0,0 +1,76 @@
+package com.herron.exchange.pricingengine.server.marketdata.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram with log linear buckets in the style of HdrHistogram. Every power of two is split into 16
+ * buckets, so recorded values are kept with a relative error below 6.25% using a fixed array of 960 counters.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int NR_OF_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+    private final AtomicLongArray counts = new AtomicLongArray(NR_OF_BUCKETS);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAccumulator maxValue = new LongAccumulator(Long::max, 0);
+
+    public void record(long value) {
+        long clampedValue = Math.max(0, value);
+        counts.incrementAndGet(toIndex(clampedValue));
+        totalCount.increment();
+        maxValue.accumulate(clampedValue);
+    }
+
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    /**
+     * Returns the highest value equivalent to the recorded value at the percentile, 0 if nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[NR_OF_BUCKETS];
+        long total = 0;
+        for (int index = 0; index < NR_OF_BUCKETS; index++) {
+            snapshot[index] = counts.get(index);
+            total += snapshot[index];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long cumulativeCount = 0;
+        for (int index = 0; index < NR_OF_BUCKETS; index++) {
+            cumulativeCount += snapshot[index];
+            if (cumulativeCount >= target) {
+                return Math.min(getHighestEquivalentValue(index), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    static int toIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    static long getHighestEquivalentValue(int index) {
+        int bucket = index / SUB_BUCKET_COUNT;
+        if (bucket == 0) {
+            return index;
+        }
+        int shift = bucket - 1;
+        long lowestEquivalentValue = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowestEquivalentValue + (1L << shift) - 1;
+    }
+}
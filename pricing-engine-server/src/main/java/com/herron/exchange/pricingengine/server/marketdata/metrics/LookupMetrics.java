@@ -0,0 +1,33 @@
+package com.herron.exchange.pricingengine.server.marketdata.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counters and lookup latencies of one entry type and time filter.
+ */
+public final class LookupMetrics {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    public void record(boolean isHit, long latencyNanos) {
+        if (isHit) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        latencies.record(latencyNanos);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+}
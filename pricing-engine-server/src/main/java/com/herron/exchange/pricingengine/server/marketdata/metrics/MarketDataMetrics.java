@@ -0,0 +1,98 @@
+package com.herron.exchange.pricingengine.server.marketdata.metrics;
+
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+import com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataEntryType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lookup counters and latencies per entry type and time filter, and the number of lookups per static key.
+ * Key counters are only created for registered keys, so lookups of unknown keys never grow the key map.
+ */
+public class MarketDataMetrics {
+    private final LookupMetrics[][] lookupMetrics;
+    private final Map<StaticKey, LongAdder> keyToLookups = new ConcurrentHashMap<>();
+
+    public MarketDataMetrics() {
+        var entryTypes = MarketDataEntryType.values();
+        var timeFilters = MarketDataRequestTimeFilter.values();
+        this.lookupMetrics = new LookupMetrics[entryTypes.length][timeFilters.length];
+        for (var entryType : entryTypes) {
+            for (var timeFilter : timeFilters) {
+                lookupMetrics[entryType.ordinal()][timeFilter.ordinal()] = new LookupMetrics();
+            }
+        }
+    }
+
+    public LookupMetrics getLookupMetrics(MarketDataEntryType entryType, MarketDataRequestTimeFilter timeFilter) {
+        return lookupMetrics[entryType.ordinal()][timeFilter.ordinal()];
+    }
+
+    public LongAdder register(StaticKey staticKey) {
+        return keyToLookups.computeIfAbsent(staticKey, k -> new LongAdder());
+    }
+
+    public void record(StaticKey staticKey,
+                       MarketDataEntryType entryType,
+                       MarketDataRequestTimeFilter timeFilter,
+                       boolean isHit,
+                       long latencyNanos) {
+        getLookupMetrics(entryType, timeFilter).record(isHit, latencyNanos);
+        var lookups = keyToLookups.get(staticKey);
+        if (lookups != null) {
+            lookups.increment();
+        }
+    }
+
+    public List<LookupStatistics> getLookupStatistics() {
+        List<LookupStatistics> statistics = new ArrayList<>();
+        for (var entryType : MarketDataEntryType.values()) {
+            for (var timeFilter : MarketDataRequestTimeFilter.values()) {
+                var metrics = getLookupMetrics(entryType, timeFilter);
+                var latencies = metrics.getLatencies();
+                if (latencies.getTotalCount() == 0) {
+                    continue;
+                }
+                statistics.add(new LookupStatistics(
+                        entryType,
+                        timeFilter,
+                        metrics.getHits(),
+                        metrics.getMisses(),
+                        latencies.getValueAtPercentile(50),
+                        latencies.getValueAtPercentile(99),
+                        latencies.getValueAtPercentile(99.9),
+                        latencies.getMaxValue()
+                ));
+            }
+        }
+        return statistics;
+    }
+
+    public List<KeyStatistics> getHotKeys(int limit) {
+        return keyToLookups.entrySet().stream()
+                .map(entry -> new KeyStatistics(entry.getKey().toString(), entry.getValue().sum()))
+                .filter(keyStatistics -> keyStatistics.lookups() > 0)
+                .sorted(Comparator.comparingLong(KeyStatistics::lookups).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public record LookupStatistics(MarketDataEntryType entryType,
+                                   MarketDataRequestTimeFilter timeFilter,
+                                   long hits,
+                                   long misses,
+                                   long p50Nanos,
+                                   long p99Nanos,
+                                   long p999Nanos,
+                                   long maxNanos) {
+    }
+
+    public record KeyStatistics(String staticKey, long lookups) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.herron.exchange.pricingengine.server.publisher;
+
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects prices from all publishing threads and sends them as one {@link RealTimePriceBatch} per flush.
+ * A batch is flushed once it holds max batch size prices or its first price has waited for the linger time.
+ * Batches are a different message type than single prices and bypass the broadcast handler, so this publisher is
+ * opt-in and only for topics whose consumers decode {@link RealTimePriceBatch}.
+ */
+public class BatchingPricePublisher implements PricePublisher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingPricePublisher.class);
+    private static final long LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private final BatchSender batchSender;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<MarketDataPrice> queue;
+    private final PricePublisherMetrics metrics = new PricePublisherMetrics();
+    private final AtomicBoolean isRunning = new AtomicBoolean(false);
+    private final ExecutorService service;
+    private long batchId = 0;
+    private long lastLogNanos = System.nanoTime();
+
+    public BatchingPricePublisher(BatchSender batchSender,
+                                  int maxBatchSize,
+                                  Duration linger,
+                                  int queueCapacity) {
+        this.batchSender = batchSender;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.service = Executors.newSingleThreadExecutor(new ThreadWrapper("Price-Batch-Publisher"));
+    }
+
+    @Override
+    public void init() {
+        if (isRunning.compareAndSet(false, true)) {
+            service.execute(this::run);
+        }
+    }
+
+    @Override
+    public void stop() {
+        isRunning.set(false);
+        service.shutdown();
+    }
+
+    /**
+     * Never blocks the caller, a price published while the queue is full is dropped and counted. The snapshot workers
+     * publish a newer price of the instrument on its next update.
+     */
+    @Override
+    public void publish(MarketDataPrice price) {
+        if (queue.offer(price)) {
+            metrics.recordPublished();
+        } else {
+            metrics.recordDropped();
+        }
+    }
+
+    @Override
+    public PricePublisherMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void run() {
+        LOGGER.info("Starting batching price publisher.");
+        List<MarketDataPrice> batch = new ArrayList<>(maxBatchSize);
+        while (isRunning.get() || !queue.isEmpty()) {
+            try {
+                fillBatch(batch);
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                    batch = new ArrayList<>(maxBatchSize);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.warn("Unhandled exception when flushing batch of size {}.", batch.size(), e);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+            logStatus();
+        }
+    }
+
+    private void fillBatch(List<MarketDataPrice> batch) throws InterruptedException {
+        var first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<MarketDataPrice> batch) {
+        long startTime = System.nanoTime();
+        batchSender.send(new RealTimePriceBatch(batchId++, Timestamp.now(), batch))
+                .whenComplete((result, exception) -> {
+                    metrics.recordFlush(batch.size(), System.nanoTime() - startTime);
+                    if (exception != null) {
+                        LOGGER.warn("Failed to send price batch of size {}.", batch.size(), exception);
+                    }
+                });
+    }
+
+    private void logStatus() {
+        long now = System.nanoTime();
+        if (now - lastLogNanos < LOG_INTERVAL_NANOS) {
+            return;
+        }
+        lastLogNanos = now;
+        LOGGER.info("Price batches, queue size: {}, {}", queue.size(), metrics.getStatistics());
+    }
+
+    @FunctionalInterface
+    public interface BatchSender {
+
+        CompletableFuture<?> send(RealTimePriceBatch batch);
+    }
+}
@@ -0,0 +1,30 @@
+package com.herron.exchange.pricingengine.server.publisher;
+
+import com.herron.exchange.common.api.common.kafka.KafkaBroadcastHandler;
+import com.herron.exchange.common.api.common.messages.common.PartitionKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+
+/**
+ * Broadcasts every price as a separate message.
+ */
+public class BroadcastPricePublisher implements PricePublisher {
+    private final KafkaBroadcastHandler broadcastHandler;
+    private final PartitionKey partitionKey;
+    private final PricePublisherMetrics metrics = new PricePublisherMetrics();
+
+    public BroadcastPricePublisher(KafkaBroadcastHandler broadcastHandler, PartitionKey partitionKey) {
+        this.broadcastHandler = broadcastHandler;
+        this.partitionKey = partitionKey;
+    }
+
+    @Override
+    public void publish(MarketDataPrice price) {
+        broadcastHandler.broadcastMessage(partitionKey, price);
+        metrics.recordPublished();
+    }
+
+    @Override
+    public PricePublisherMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,19 @@
+package com.herron.exchange.pricingengine.server.publisher;
+
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+
+/**
+ * Publishes real time prices, called concurrently by all snapshot workers.
+ */
+public interface PricePublisher {
+
+    void publish(MarketDataPrice price);
+
+    PricePublisherMetrics getMetrics();
+
+    default void init() {
+    }
+
+    default void stop() {
+    }
+}
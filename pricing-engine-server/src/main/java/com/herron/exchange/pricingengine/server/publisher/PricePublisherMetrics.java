@@ -0,0 +1,64 @@
+package com.herron.exchange.pricingengine.server.publisher;
+
+import com.herron.exchange.pricingengine.server.marketdata.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the published and dropped prices of a publisher, and the sizes and send latencies of its batches when
+ * prices are batched.
+ */
+public class PricePublisherMetrics {
+    private final LongAdder publishedPrices = new LongAdder();
+    private final LongAdder droppedPrices = new LongAdder();
+    private final LatencyHistogram batchSizes = new LatencyHistogram();
+    private final LatencyHistogram flushLatencies = new LatencyHistogram();
+
+    public void recordPublished() {
+        publishedPrices.increment();
+    }
+
+    public void recordDropped() {
+        droppedPrices.increment();
+    }
+
+    public void recordFlush(int batchSize, long flushNanos) {
+        batchSizes.record(batchSize);
+        flushLatencies.record(flushNanos);
+    }
+
+    public long getPublishedPrices() {
+        return publishedPrices.sum();
+    }
+
+    public long getDroppedPrices() {
+        return droppedPrices.sum();
+    }
+
+    public PublisherStatistics getStatistics() {
+        return new PublisherStatistics(
+                getPublishedPrices(),
+                getDroppedPrices(),
+                batchSizes.getTotalCount(),
+                batchSizes.getValueAtPercentile(50),
+                batchSizes.getValueAtPercentile(99),
+                batchSizes.getMaxValue(),
+                flushLatencies.getValueAtPercentile(50),
+                flushLatencies.getValueAtPercentile(99),
+                flushLatencies.getValueAtPercentile(99.9),
+                flushLatencies.getMaxValue()
+        );
+    }
+
+    public record PublisherStatistics(long publishedPrices,
+                                      long droppedPrices,
+                                      long batches,
+                                      long p50BatchSize,
+                                      long p99BatchSize,
+                                      long maxBatchSize,
+                                      long p50FlushNanos,
+                                      long p99FlushNanos,
+                                      long p999FlushNanos,
+                                      long maxFlushNanos) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.herron.exchange.pricingengine.server.publisher;
+
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+
+import java.util.List;
+
+/**
+ * A batch of real time prices sent as one Kafka record.
+ *
+ * @param batchId     sequence number of the batch, increasing by one per batch
+ * @param timeOfEvent time the batch was flushed
+ * @param prices      prices in the order they were published
+ */
+public record RealTimePriceBatch(long batchId,
+                                 Timestamp timeOfEvent,
+                                 List<MarketDataPrice> prices) {
+}
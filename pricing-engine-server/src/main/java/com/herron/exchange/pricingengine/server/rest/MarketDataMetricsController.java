@@ -0,0 +1,43 @@
+package com.herron.exchange.pricingengine.server.rest;
+
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataEntryType;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataService;
+import com.herron.exchange.pricingengine.server.marketdata.metrics.MarketDataMetrics.KeyStatistics;
+import com.herron.exchange.pricingengine.server.marketdata.metrics.MarketDataMetrics.LookupStatistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/market-data/metrics")
+public class MarketDataMetricsController {
+    private final MarketDataService marketDataService;
+
+    public MarketDataMetricsController(MarketDataService marketDataService) {
+        this.marketDataService = marketDataService;
+    }
+
+    @GetMapping("/lookups")
+    public List<LookupStatistics> getLookupStatistics() {
+        return marketDataService.getMetrics().getLookupStatistics();
+    }
+
+    @GetMapping("/hot-keys")
+    public List<KeyStatistics> getHotKeys(@RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return marketDataService.getMetrics().getHotKeys(limit);
+    }
+
+    @GetMapping("/entries")
+    public Map<MarketDataEntryType, Long> getNrOfEntries() {
+        return marketDataService.getNrOfEntries();
+    }
+
+    @GetMapping("/heap")
+    public Map<MarketDataEntryType, Long> getEstimatedHeapUsage() {
+        return marketDataService.getEstimatedHeapUsage();
+    }
+}
@@ -0,0 +1,22 @@
+package com.herron.exchange.pricingengine.server.rest;
+
+import com.herron.exchange.pricingengine.server.publisher.PricePublisher;
+import com.herron.exchange.pricingengine.server.publisher.PricePublisherMetrics.PublisherStatistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/publisher/metrics")
+public class PricePublisherMetricsController {
+    private final PricePublisher pricePublisher;
+
+    public PricePublisherMetricsController(PricePublisher pricePublisher) {
+        this.pricePublisher = pricePublisher;
+    }
+
+    @GetMapping
+    public PublisherStatistics getStatistics() {
+        return pricePublisher.getMetrics().getStatistics();
+    }
+}
@@ -0,0 +1,44 @@
+package com.herron.exchange.pricingengine.server.rest;
+
+import com.herron.exchange.pricingengine.server.snapshot.SnapshotWorkerPool;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/snapshot/metrics")
+public class SnapshotMetricsController {
+    private final SnapshotWorkerPool snapshotWorkerPool;
+
+    public SnapshotMetricsController(SnapshotWorkerPool snapshotWorkerPool) {
+        this.snapshotWorkerPool = snapshotWorkerPool;
+    }
+
+    @GetMapping("/product-distribution")
+    public Map<String, Integer> getProductDistribution() {
+        return snapshotWorkerPool.getProductDistribution();
+    }
+
+    @GetMapping("/products-per-worker")
+    public Map<String, List<String>> getProductsPerWorker() {
+        return snapshotWorkerPool.getProductsPerWorker();
+    }
+
+    @GetMapping("/conflated-quotes")
+    public long getConflatedQuotes() {
+        return snapshotWorkerPool.getConflatedQuotes();
+    }
+
+    @GetMapping("/repricings")
+    public long getNrOfRepricings() {
+        return snapshotWorkerPool.getNrOfRepricings();
+    }
+
+    @GetMapping("/delayed-flushes")
+    public long getDelayedFlushes() {
+        return snapshotWorkerPool.getDelayedFlushes();
+    }
+}
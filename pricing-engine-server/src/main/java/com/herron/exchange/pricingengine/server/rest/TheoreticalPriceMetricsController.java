@@ -0,0 +1,22 @@
+package com.herron.exchange.pricingengine.server.rest;
+
+import com.herron.exchange.pricingengine.server.theoretical.TheoreticalPriceCalculator;
+import com.herron.exchange.pricingengine.server.theoretical.TheoreticalPriceMetrics.CacheStatistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/theoretical/metrics")
+public class TheoreticalPriceMetricsController {
+    private final TheoreticalPriceCalculator theoreticalPriceCalculator;
+
+    public TheoreticalPriceMetricsController(TheoreticalPriceCalculator theoreticalPriceCalculator) {
+        this.theoreticalPriceCalculator = theoreticalPriceCalculator;
+    }
+
+    @GetMapping("/cache")
+    public CacheStatistics getCacheStatistics() {
+        return theoreticalPriceCalculator.getMetrics().getCacheStatistics();
+    }
+}
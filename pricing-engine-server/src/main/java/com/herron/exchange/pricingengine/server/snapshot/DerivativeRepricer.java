@@ -0,0 +1,78 @@
+package com.herron.exchange.pricingengine.server.snapshot;
+
+import com.herron.exchange.common.api.common.api.referencedata.instruments.DerivativeInstrument;
+import com.herron.exchange.common.api.common.api.referencedata.instruments.Instrument;
+import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Requests a repricing of the derivatives of an underlying whenever a new price of the underlying is published.
+ * The repricing itself runs on the snapshot worker of the derivative, so the theoretical price goes through the
+ * price priority and throttle of the derivative like any other price. Requests are coalesced per derivative, a burst
+ * of underlying prices results in at most one pending repricing of each derivative.
+ */
+public class DerivativeRepricer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DerivativeRepricer.class);
+    private final Map<String, Map<String, DerivativeInstrument>> underlyingIdToDerivatives = new ConcurrentHashMap<>();
+    private final Set<String> pendingDerivatives = ConcurrentHashMap.newKeySet();
+    private final LongAdder nrOfRepricings = new LongAdder();
+    private final Consumer<DerivativeInstrument> repricingQueue;
+
+    /**
+     * @param repricingQueue queues a repricing of the derivative on its snapshot worker, called from any worker thread
+     */
+    public DerivativeRepricer(Consumer<DerivativeInstrument> repricingQueue) {
+        this.repricingQueue = repricingQueue;
+    }
+
+    public void init() {
+        for (var instrument : ReferenceDataCache.getCache().getInstruments()) {
+            addInstrument(instrument);
+        }
+        LOGGER.info("Indexed derivatives of {} underlyings.", underlyingIdToDerivatives.size());
+    }
+
+    public void addInstrument(Instrument instrument) {
+        if (instrument instanceof DerivativeInstrument derivative) {
+            underlyingIdToDerivatives.computeIfAbsent(derivative.underlyingInstrumentId(), k -> new ConcurrentHashMap<>())
+                    .putIfAbsent(derivative.instrumentId(), derivative);
+        }
+    }
+
+    public void onPriceUpdate(String instrumentId) {
+        var derivatives = underlyingIdToDerivatives.get(instrumentId);
+        if (derivatives == null) {
+            return;
+        }
+        for (var derivative : derivatives.values()) {
+            if (pendingDerivatives.add(derivative.instrumentId())) {
+                repricingQueue.accept(derivative);
+            }
+        }
+    }
+
+    /**
+     * Called by the snapshot worker before repricing the derivative, so underlying prices published during the
+     * repricing request a new one.
+     */
+    public void onRepricing(DerivativeInstrument derivative) {
+        pendingDerivatives.remove(derivative.instrumentId());
+        nrOfRepricings.increment();
+    }
+
+    public int getNrOfDerivatives(String underlyingId) {
+        var derivatives = underlyingIdToDerivatives.get(underlyingId);
+        return derivatives == null ? 0 : derivatives.size();
+    }
+
+    public long getNrOfRepricings() {
+        return nrOfRepricings.sum();
+    }
+}
@@ -10,70 +10,183 @@ import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaul
 import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
 import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
 import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.MarketDataPriceStaticKey;
+import com.herron.exchange.common.api.common.messages.trading.PriceQuote;
 import com.herron.exchange.common.api.common.messages.trading.TopOfBook;
 import com.herron.exchange.common.api.common.messages.trading.Trade;
+import com.herron.exchange.pricingengine.server.theoretical.TheoreticalPriceCache;
 import com.herron.exchange.pricingengine.server.theoretical.TheoreticalPriceCalculator;
 
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
-import java.util.Optional;
-
 import static com.herron.exchange.common.api.common.enums.PriceType.*;
+import static com.herron.exchange.pricingengine.server.utils.TimestampUtils.toEpochMs;
 
+/**
+ * Keeps the intraday prices of an instrument as fixed point scaled longs in mutable fields so that updating the
+ * snapshot does not allocate. The outgoing {@link MarketDataPrice} is only built once the throttle filter has
+ * accepted the selected price.
+ * The VWAP price type is either the session VWAP or a rolling window chosen per instrument or product, see
+ * {@link PriceSnapshotSettings#getVwapWindow}. Only the selected window is maintained.
+ * A valid price rejected by the throttle is kept as pending and published by {@link #flush()} once the throttle
+ * window has passed, so the last price of a burst is not lost.
+ */
 public class PriceSnapshotCalculator {
+    static final long PRICE_SCALE = 100_000_000L;
+    static final long VOLUME_SCALE = 100_000_000L;
+    private static final long MS_PER_DAY = 86_400_000L;
 
     private final VwapCalculator vwapCalculator = new VwapCalculator();
-    private final SnapshotPriceThrottleFilter throttleFilter = new SnapshotPriceThrottleFilter(Duration.of(5, ChronoUnit.SECONDS), 0.001);
+    private final RollingWindowCalculator vwapWindowCalculator;
+    private long sessionDay = Long.MIN_VALUE;
+    private final SnapshotPriceThrottleFilter throttleFilter;
     private final Instrument instrument;
-    private final TheoreticalPriceCalculator priceCalculator;
-    private TimeAndPrice vwapPrice = new TimeAndPrice(Timestamp.from(0), Price.EMPTY, VWAP);
-    private TimeAndPrice lastPrice = new TimeAndPrice(Timestamp.from(0), Price.EMPTY, LAST_PRICE);
-    private TimeAndPrice bidPrice = new TimeAndPrice(Timestamp.from(0), Price.EMPTY, BID_PRICE);
-    private TimeAndPrice askPrice = new TimeAndPrice(Timestamp.from(0), Price.EMPTY, ASK_PRICE);
+    private final MarketDataPriceStaticKey staticKey;
+    private final TheoreticalPriceCache theoreticalPriceCache;
+    private final PriceState vwapPrice = new PriceState(VWAP);
+    private final PriceState lastPrice = new PriceState(LAST_PRICE);
+    private final PriceState bidPrice = new PriceState(BID_PRICE);
+    private final PriceState askPrice = new PriceState(ASK_PRICE);
+    private final PriceState midBidAskPrice = new PriceState(MID_BID_ASK_PRICE);
+    private final PriceState theoreticalPrice = new PriceState(THEORETICAL);
+    private final PriceState pendingPrice = new PriceState(null);
+    private boolean flushScheduled = false;
 
     public PriceSnapshotCalculator(Instrument instrument, TheoreticalPriceCalculator priceCalculator) {
+        this(instrument, priceCalculator, PriceSnapshotSettings.DEFAULT);
+    }
+
+    public PriceSnapshotCalculator(Instrument instrument, TheoreticalPriceCalculator priceCalculator, PriceSnapshotSettings settings) {
         this.instrument = instrument;
-        this.priceCalculator = priceCalculator;
+        this.staticKey = ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrument.instrumentId()).build();
+        this.theoreticalPriceCache = new TheoreticalPriceCache(instrument, priceCalculator, settings.theoreticalMaxStaleness());
+        var vwapWindow = settings.getVwapWindow(instrument);
+        this.vwapWindowCalculator = vwapWindow.isZero() ? null : new RollingWindowCalculator(vwapWindow, settings.nrOfWindowBuckets());
+        this.throttleFilter = new SnapshotPriceThrottleFilter(settings.getThrottleSettings(instrument));
     }
 
     public MarketDataPrice updateAndGet(Trade trade) {
-        Price vwap = vwapCalculator.updateAndGetVwap(trade);
-        vwapPrice = vwapPrice.from(trade.timeOfEvent(), vwap);
-        lastPrice = lastPrice.from(trade.timeOfEvent(), trade.price());
+        long timeOfEventMs = toEpochMs(trade.timeOfEvent());
+        long scaledPrice = toScaledPrice(trade.price().getRealValue());
+        long scaledVolume = Math.round(trade.volume().getValue() * VOLUME_SCALE);
+        vwapPrice.update(timeOfEventMs, updateAndGetVwap(timeOfEventMs, scaledPrice, scaledVolume));
+        lastPrice.update(timeOfEventMs, scaledPrice);
         return getPrice();
     }
 
+    private long updateAndGetVwap(long timeOfEventMs, long scaledPrice, long scaledVolume) {
+        if (vwapWindowCalculator != null) {
+            vwapWindowCalculator.update(timeOfEventMs, scaledPrice, scaledVolume);
+            return vwapWindowCalculator.getVwap(timeOfEventMs);
+        }
+
+        long tradeDay = Math.floorDiv(timeOfEventMs, MS_PER_DAY);
+        if (tradeDay > sessionDay) {
+            sessionDay = tradeDay;
+            vwapCalculator.reset();
+        }
+        return vwapCalculator.updateAndGetVwap(scaledPrice, scaledVolume);
+    }
+
     public MarketDataPrice updateAndGet(TopOfBook topOfBook) {
-        bidPrice = Optional.ofNullable(topOfBook.bidQuote()).map(bq -> bidPrice.from(bq.timeOfEvent(), bq.price())).orElse(bidPrice);
-        askPrice = Optional.ofNullable(topOfBook.askQuote()).map(aq -> askPrice.from(aq.timeOfEvent(), aq.price())).orElse(askPrice);
+        updateQuote(bidPrice, topOfBook.bidQuote());
+        updateQuote(askPrice, topOfBook.askQuote());
         return getPrice();
     }
 
     public MarketDataPrice getPrice() {
-        var timeAndPrice = selectPrice();
-        if (throttleFilter.filter(timeAndPrice)) {
+        return filterAndBuildPrice(selectPrice());
+    }
+
+    /**
+     * Re-evaluates the theoretical price after one of its inputs changed. Nothing is published unless the theoretical
+     * price is the one selected by the price priority of the instrument.
+     */
+    public MarketDataPrice reprice() {
+        var priceState = selectPrice();
+        if (priceState == null || priceState.priceType != THEORETICAL) {
             return null;
         }
+        return filterAndBuildPrice(priceState);
+    }
+
+    private MarketDataPrice filterAndBuildPrice(PriceState priceState) {
+        if (throttleFilter.filter(priceState)) {
+            if (priceState != null) {
+                pendingPrice.copy(priceState);
+            }
+            return null;
+        }
+        pendingPrice.invalidate();
+        return buildPrice(priceState);
+    }
+
+    /**
+     * Returns true once per pending price if a flush should be scheduled, the flag is cleared by {@link #flush()}.
+     */
+    public boolean requestFlush() {
+        if (flushScheduled || !pendingPrice.isValid()) {
+            return false;
+        }
+        flushScheduled = true;
+        return true;
+    }
+
+    /**
+     * Publishes the pending price at the end of the throttle window if it still differs from the last published price.
+     */
+    public MarketDataPrice flush() {
+        flushScheduled = false;
+        if (!throttleFilter.isChanged(pendingPrice)) {
+            pendingPrice.invalidate();
+            return null;
+        }
+        throttleFilter.markPublished(pendingPrice);
+        var price = buildPrice(pendingPrice);
+        pendingPrice.invalidate();
+        return price;
+    }
+
+    public long getThrottleWindowMs() {
+        return throttleFilter.getMinTimeBeforeUpdateMs();
+    }
 
+    /**
+     * Returns the delay until the end of the throttle window the pending price was rejected in.
+     */
+    public long getFlushDelayMs() {
+        return throttleFilter.getRemainingWindowMs(pendingPrice.timeOfEventMs);
+    }
+
+    public Instrument getInstrument() {
+        return instrument;
+    }
+
+    private MarketDataPrice buildPrice(PriceState priceState) {
         return ImmutableMarketDataPrice.builder()
-                .priceType(timeAndPrice.priceType)
-                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrument.instrumentId()).build())
-                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(timeAndPrice.timestamp).build())
-                .price(timeAndPrice.price)
+                .priceType(priceState.priceType)
+                .staticKey(staticKey)
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(priceState.timeOfEventMs)).build())
+                .price(Price.create(toRealPrice(priceState.scaledPrice)))
                 .build();
     }
 
-    private TimeAndPrice selectPrice() {
+    private void updateQuote(PriceState priceState, PriceQuote quote) {
+        if (quote == null) {
+            return;
+        }
+        priceState.update(toEpochMs(quote.timeOfEvent()), toScaledPrice(quote.price().getRealValue()));
+    }
+
+    private PriceState selectPrice() {
         for (var priceType : instrument.priceModelParameters().intradayPricePriority()) {
-            var timeAndPrice = getPrice(priceType);
-            if (timeAndPrice != null && timeAndPrice.isValid()) {
-                return timeAndPrice;
+            var priceState = getPrice(priceType);
+            if (priceState.isValid()) {
+                return priceState;
             }
         }
         return null;
     }
 
-    private TimeAndPrice getPrice(PriceType priceType) {
+    private PriceState getPrice(PriceType priceType) {
         return switch (priceType) {
             case LAST_PRICE -> lastPrice;
             case BID_PRICE -> bidPrice;
@@ -81,35 +194,81 @@ public class PriceSnapshotCalculator {
             case VWAP -> vwapPrice;
             case MID_BID_ASK_PRICE -> {
                 if (bidPrice.isValid() && askPrice.isValid()) {
-                    yield new TimeAndPrice(Timestamp.now(), bidPrice.price().add(askPrice.price()).divide(2), MID_BID_ASK_PRICE);
+                    midBidAskPrice.set(System.currentTimeMillis(), (bidPrice.scaledPrice + askPrice.scaledPrice) / 2);
+                } else {
+                    midBidAskPrice.invalidate();
                 }
-                yield TimeAndPrice.createInvalidPrice();
+                yield midBidAskPrice;
             }
             case THEORETICAL -> {
-                var result = priceCalculator.calculatePrice(instrument, Timestamp.now());
+                var result = theoreticalPriceCache.getPrice();
                 if (result.status() == Status.OK) {
-                    yield new TimeAndPrice(result.calculationTime(), result.price(), THEORETICAL);
+                    theoreticalPrice.set(toEpochMs(result.calculationTime()), toScaledPrice(result.price().getRealValue()));
+                } else {
+                    theoreticalPrice.invalidate();
                 }
-                yield TimeAndPrice.createInvalidPrice();
+                yield theoreticalPrice;
             }
             default -> throw new IllegalArgumentException(String.format("Price type not %s supported.", priceType));
         };
     }
 
-    public record TimeAndPrice(Timestamp timestamp, Price price, PriceType priceType) {
-        public static TimeAndPrice createInvalidPrice() {
-            return new TimeAndPrice(Timestamp.from(0), Price.EMPTY, null);
+    static long toScaledPrice(double price) {
+        return Math.round(price * PRICE_SCALE);
+    }
+
+    static double toRealPrice(long scaledPrice) {
+        return (double) scaledPrice / PRICE_SCALE;
+    }
+
+    public static class PriceState {
+        private PriceType priceType;
+        private boolean valid = false;
+        private long timeOfEventMs = 0;
+        private long scaledPrice = 0;
+
+        PriceState(PriceType priceType) {
+            this.priceType = priceType;
         }
 
-        boolean isValid() {
-            return price != Price.EMPTY;
+        public PriceType priceType() {
+            return priceType;
         }
 
-        public TimeAndPrice from(Timestamp timestamp, Price price) {
-            if (timestamp.isBefore(this.timestamp)) {
-                return this;
+        public long timeOfEventMs() {
+            return timeOfEventMs;
+        }
+
+        public long scaledPrice() {
+            return scaledPrice;
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+
+        void update(long timeOfEventMs, long scaledPrice) {
+            if (valid && timeOfEventMs < this.timeOfEventMs) {
+                return;
             }
-            return new TimeAndPrice(timestamp, price, priceType);
+            set(timeOfEventMs, scaledPrice);
+        }
+
+        void set(long timeOfEventMs, long scaledPrice) {
+            this.valid = true;
+            this.timeOfEventMs = timeOfEventMs;
+            this.scaledPrice = scaledPrice;
+        }
+
+        void invalidate() {
+            this.valid = false;
+        }
+
+        void copy(PriceState other) {
+            this.priceType = other.priceType;
+            this.valid = other.valid;
+            this.timeOfEventMs = other.timeOfEventMs;
+            this.scaledPrice = other.scaledPrice;
         }
     }
 }
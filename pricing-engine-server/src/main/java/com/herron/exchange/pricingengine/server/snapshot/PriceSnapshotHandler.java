@@ -7,70 +7,129 @@ import com.herron.exchange.common.api.common.api.referencedata.instruments.Instr
 import com.herron.exchange.common.api.common.cache.ReferenceDataCache;
 import com.herron.exchange.common.api.common.comparator.EventComparator;
 import com.herron.exchange.common.api.common.enums.KafkaTopicEnum;
-import com.herron.exchange.common.api.common.kafka.KafkaBroadcastHandler;
 import com.herron.exchange.common.api.common.messages.common.PartitionKey;
 import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
 import com.herron.exchange.common.api.common.messages.trading.TopOfBook;
 import com.herron.exchange.common.api.common.messages.trading.Trade;
 import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataHandle;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataService;
+import com.herron.exchange.pricingengine.server.publisher.PricePublisher;
+import com.herron.exchange.pricingengine.server.snapshot.queue.ConflatingTopOfBookQueue;
+import com.herron.exchange.pricingengine.server.snapshot.queue.EventQueue;
+import com.herron.exchange.pricingengine.server.snapshot.queue.SpscRingBuffer;
+import com.herron.exchange.pricingengine.server.snapshot.queue.WaitStrategy;
+import com.herron.exchange.pricingengine.server.snapshot.timer.HashedWheelTimer;
 import com.herron.exchange.pricingengine.server.theoretical.TheoreticalPriceCalculator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.*;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-
-import static java.util.concurrent.Executors.newScheduledThreadPool;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PriceSnapshotHandler {
     public static final PartitionKey REAL_TIME_PRICE_KEY = new PartitionKey(KafkaTopicEnum.REAL_TIME_PRICES, 0);
     private static final Logger LOGGER = LoggerFactory.getLogger(PriceSnapshotHandler.class);
     private final Map<Instrument, PriceSnapshotCalculator> instrumentToPriceSnapshotCalculator = new ConcurrentHashMap<>();
-    private final Map<String, List<DerivativeInstrument>> underlyingIdToDerivative = new ConcurrentHashMap<>();
-    private final BlockingQueue<Event> eventQueue = new PriorityBlockingQueue<>(50, new EventComparator<>());
-    private final ScheduledExecutorService queueLoggerThread;
+    private final EventComparator<Event> eventComparator = new EventComparator<>();
+    private final EventQueue<Trade> tradeQueue;
+    private final EventQueue<TopOfBook> quoteQueue;
+    private final EventQueue<PriceSnapshotCalculator> flushQueue;
+    private final Queue<DerivativeInstrument> repricingQueue = new ConcurrentLinkedQueue<>();
+    private final HashedWheelTimer flushTimer;
+    private final WaitStrategy waitStrategy;
     private final AtomicBoolean isMatching = new AtomicBoolean(false);
+    private final LongAdder delayedFlushes = new LongAdder();
     private final ExecutorService service;
-    private final KafkaBroadcastHandler broadcastHandler;
+    private final PricePublisher pricePublisher;
     private final TheoreticalPriceCalculator priceCalculator;
+    private final PriceSnapshotSettings settings;
+    private final DerivativeRepricer derivativeRepricer;
+    private final MarketDataService marketDataService;
+    // Only accessed by the worker thread
+    private final Map<PriceSnapshotCalculator, MarketDataHandle<MarketDataPrice>> calculatorToLivePrice = new HashMap<>();
 
     public PriceSnapshotHandler(String id,
-                                KafkaBroadcastHandler broadcastHandler,
-                                TheoreticalPriceCalculator priceCalculator) {
-        this.broadcastHandler = broadcastHandler;
+                                PricePublisher pricePublisher,
+                                MarketDataService marketDataService,
+                                TheoreticalPriceCalculator priceCalculator,
+                                PriceSnapshotSettings settings,
+                                DerivativeRepricer derivativeRepricer,
+                                HashedWheelTimer flushTimer,
+                                int ringBufferSize,
+                                WaitStrategy waitStrategy,
+                                boolean conflateQuotes) {
+        this.pricePublisher = pricePublisher;
+        this.marketDataService = marketDataService;
         this.priceCalculator = priceCalculator;
+        this.settings = settings;
+        this.derivativeRepricer = derivativeRepricer;
+        this.tradeQueue = new SpscRingBuffer<>(ringBufferSize);
+        this.quoteQueue = conflateQuotes ? new ConflatingTopOfBookQueue(ringBufferSize) : new SpscRingBuffer<>(ringBufferSize);
+        this.flushQueue = new SpscRingBuffer<>(ringBufferSize);
+        this.flushTimer = flushTimer;
+        this.waitStrategy = waitStrategy;
         this.service = Executors.newSingleThreadExecutor(new ThreadWrapper(id));
-        this.queueLoggerThread = newScheduledThreadPool(1, new ThreadWrapper(id));
     }
 
+    /**
+     * Trades and quotes arrive on separate consumer threads, each with its own single producer queue, so their topics are
+     * consumed from one partition each.
+     * Trades are never conflated since the VWAP needs every one of them.
+     */
     public void queueEvent(Event event) {
-        eventQueue.add(event);
+        if (event instanceof Trade trade) {
+            tradeQueue.put(trade, waitStrategy);
+        } else if (event instanceof TopOfBook topOfBook) {
+            quoteQueue.put(topOfBook, waitStrategy);
+        }
+    }
+
+    /**
+     * Repricing requests come from the workers of the underlyings, they are coalesced per derivative by the
+     * {@link DerivativeRepricer} so the queue is bounded by the number of derivatives of this worker.
+     */
+    public void queueRepricing(DerivativeInstrument derivative) {
+        repricingQueue.add(derivative);
     }
 
     public void init() {
         isMatching.set(true);
         service.execute(this::broadcastPrices);
-        queueLoggerThread.scheduleAtFixedRate(() -> LOGGER.info("Message Queue size: {}", eventQueue.size()), 0, 60, TimeUnit.SECONDS);
     }
 
     public void stop() {
         LOGGER.info("Stopping snapshot handler.");
         isMatching.set(false);
-        queueLoggerThread.shutdown();
+        service.shutdown();
     }
 
     private void broadcastPrices() {
         LOGGER.info("Starting snapshot handler.");
         Event event;
-        while (isMatching.get() || !eventQueue.isEmpty()) {
+        int idleCounter = 0;
+        while (isMatching.get() || queueSize() > 0) {
 
+            boolean hasFlushed = flushPendingPrices();
+            boolean hasRepriced = repricePendingDerivatives();
             event = poll();
             if (event == null) {
+                if (hasFlushed || hasRepriced) {
+                    idleCounter = 0;
+                    continue;
+                }
+                idleCounter = waitStrategy.idle(idleCounter);
                 continue;
             }
+            idleCounter = 0;
 
             try {
                 updateSnapshot(event);
@@ -80,12 +139,83 @@ public class PriceSnapshotHandler {
         }
     }
 
+    /**
+     * Publishes the pending prices of the calculators whose throttle window has ended. The shared timer thread is the
+     * only producer of the flush queue, so all calculator state is still only touched by this worker thread.
+     */
+    private boolean flushPendingPrices() {
+        boolean hasFlushed = false;
+        PriceSnapshotCalculator calculator;
+        while ((calculator = flushQueue.poll()) != null) {
+            hasFlushed = true;
+            try {
+                broadcastPrice(calculator, calculator.flush());
+            } catch (Exception e) {
+                LOGGER.warn("Unhandled exception when flushing price for instrument: {}", calculator.getInstrument().instrumentId(), e);
+            }
+        }
+        return hasFlushed;
+    }
+
+    private boolean repricePendingDerivatives() {
+        boolean hasRepriced = false;
+        DerivativeInstrument derivative;
+        while ((derivative = repricingQueue.poll()) != null) {
+            hasRepriced = true;
+            derivativeRepricer.onRepricing(derivative);
+            try {
+                var calculator = getOrCreateCalculator(derivative);
+                broadcastPrice(calculator, calculator.reprice());
+                scheduleFlush(calculator);
+            } catch (Exception e) {
+                LOGGER.warn("Unhandled exception when repricing derivative: {}", derivative.instrumentId(), e);
+            }
+        }
+        return hasRepriced;
+    }
+
+    private void scheduleFlush(PriceSnapshotCalculator calculator) {
+        if (calculator.requestFlush()) {
+            flushTimer.schedule(() -> offerFlush(calculator), calculator.getFlushDelayMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Runs on the shared timer thread, which must never block on a single worker. If the flush queue of this worker
+     * is full the flush is retried on the next tick.
+     */
+    private void offerFlush(PriceSnapshotCalculator calculator) {
+        if (!flushQueue.offer(calculator)) {
+            delayedFlushes.increment();
+            flushTimer.schedule(() -> offerFlush(calculator), 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Merges the heads of the trade and quote queues so events are processed in event order across both sources.
+     */
     private Event poll() {
-        try {
-            return eventQueue.poll(500, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            return null;
+        Trade trade = tradeQueue.peek();
+        TopOfBook quote = quoteQueue.peek();
+        if (trade == null) {
+            return quote == null ? null : quoteQueue.poll();
         }
+        if (quote == null || eventComparator.compare(trade, quote) <= 0) {
+            return tradeQueue.poll();
+        }
+        return quoteQueue.poll();
+    }
+
+    public int queueSize() {
+        return tradeQueue.size() + quoteQueue.size();
+    }
+
+    public long getDelayedFlushes() {
+        return delayedFlushes.sum();
+    }
+
+    public long getConflatedQuotes() {
+        return quoteQueue instanceof ConflatingTopOfBookQueue conflatingQueue ? conflatingQueue.getConflatedUpdates() : 0;
     }
 
     private void updateSnapshot(Event event) {
@@ -93,27 +223,35 @@ public class PriceSnapshotHandler {
             var instrument = ReferenceDataCache.getCache().getInstrument(trade.instrumentId());
             var calculator = getOrCreateCalculator(instrument);
             var marketPrice = calculator.updateAndGet(trade);
-            broadcastPrice(marketPrice);
+            broadcastPrice(calculator, marketPrice);
+            scheduleFlush(calculator);
 
         } else if (event instanceof TopOfBook topOfBook) {
             var instrument = ReferenceDataCache.getCache().getOrderbookData(topOfBook.orderbookId()).instrument();
             var calculator = getOrCreateCalculator(instrument);
             var marketPrice = calculator.updateAndGet(topOfBook);
-            broadcastPrice(marketPrice);
+            broadcastPrice(calculator, marketPrice);
+            scheduleFlush(calculator);
         }
     }
 
-    private void broadcastPrice(MarketDataPrice price) {
+    private void broadcastPrice(PriceSnapshotCalculator calculator, MarketDataPrice price) {
         if (price == null) {
             return;
         }
-        broadcastHandler.broadcastMessage(REAL_TIME_PRICE_KEY, price);
+        pricePublisher.publish(price);
+        marketDataService.updateLivePrice(calculatorToLivePrice.get(calculator), price);
+        derivativeRepricer.onPriceUpdate(calculator.getInstrument().instrumentId());
     }
 
     private PriceSnapshotCalculator getOrCreateCalculator(Instrument instrument) {
-        if (instrument instanceof DerivativeInstrument derivativeInstrument) {
-            underlyingIdToDerivative.computeIfAbsent(derivativeInstrument.underlyingInstrumentId(), k -> new ArrayList<>()).add(derivativeInstrument);
-        }
-        return instrumentToPriceSnapshotCalculator.computeIfAbsent(instrument, k -> new PriceSnapshotCalculator(instrument, priceCalculator));
+        return instrumentToPriceSnapshotCalculator.computeIfAbsent(instrument, this::createCalculator);
+    }
+
+    private PriceSnapshotCalculator createCalculator(Instrument instrument) {
+        derivativeRepricer.addInstrument(instrument);
+        var calculator = new PriceSnapshotCalculator(instrument, priceCalculator, settings);
+        calculatorToLivePrice.put(calculator, marketDataService.resolvePrice(instrument.instrumentId()));
+        return calculator;
     }
 }
@@ -0,0 +1,41 @@
+package com.herron.exchange.pricingengine.server.snapshot;
+
+import com.herron.exchange.common.api.common.api.referencedata.instruments.Instrument;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings shared by all snapshot calculators.
+ *
+ * @param vwapWindow         default window backing the VWAP price type, {@link Duration#ZERO} means the trading session
+ * @param vwapWindowOverrides VWAP windows keyed by instrument id or product id, instrument id takes precedence
+ * @param nrOfWindowBuckets  number of buckets a rolling window is split into
+ * @param throttle           default thresholds of the price throttle
+ * @param throttleOverrides  throttle thresholds keyed by instrument id or product id, instrument id takes precedence
+ * @param theoreticalMaxStaleness max age of a cached theoretical price whose market data inputs are unchanged
+ */
+public record PriceSnapshotSettings(Duration vwapWindow,
+                                    Map<String, Duration> vwapWindowOverrides,
+                                    int nrOfWindowBuckets,
+                                    ThrottleSettings throttle,
+                                    Map<String, ThrottleSettings> throttleOverrides,
+                                    Duration theoreticalMaxStaleness) {
+    public static final PriceSnapshotSettings DEFAULT = new PriceSnapshotSettings(Duration.ZERO, Map.of(), 60, ThrottleSettings.DEFAULT, Map.of(), Duration.ofSeconds(1));
+
+    public Duration getVwapWindow(Instrument instrument) {
+        var window = vwapWindowOverrides.get(instrument.instrumentId());
+        if (window == null) {
+            window = vwapWindowOverrides.get(instrument.product().productId());
+        }
+        return window != null ? window : vwapWindow;
+    }
+
+    public ThrottleSettings getThrottleSettings(Instrument instrument) {
+        var settings = throttleOverrides.get(instrument.instrumentId());
+        if (settings == null) {
+            settings = throttleOverrides.get(instrument.product().productId());
+        }
+        return settings != null ? settings : throttle;
+    }
+}
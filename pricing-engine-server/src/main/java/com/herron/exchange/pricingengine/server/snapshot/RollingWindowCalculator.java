@@ -0,0 +1,96 @@
+package com.herron.exchange.pricingengine.server.snapshot;
+
+import java.time.Duration;
+
+/**
+ * Volume weighted average price over a rolling time window.
+ * The window is split into a ring of buckets holding primitive accumulators, and running totals are kept over all
+ * buckets. Moving the window forward subtracts and clears the expired buckets, so expiring trades costs at most one
+ * pass over the ring no matter how many trades it held. The window resolution is one bucket.
+ * Prices and volumes are fixed point scaled longs, see {@link PriceSnapshotCalculator}.
+ */
+public class RollingWindowCalculator {
+    private final Duration window;
+    private final long bucketMs;
+    private final int nrOfBuckets;
+    private final double[] bucketNotional;
+    private final long[] bucketVolume;
+    private long currentBucket = Long.MIN_VALUE;
+    private double notional = 0;
+    private long volume = 0;
+    private boolean hasLastTrade = false;
+    private long lastTradeTimeMs = 0;
+
+    public RollingWindowCalculator(Duration window, int nrOfBuckets) {
+        if (window.toMillis() < nrOfBuckets || nrOfBuckets < 1) {
+            throw new IllegalArgumentException(String.format("Window %s cannot be split into %s buckets.", window, nrOfBuckets));
+        }
+        this.window = window;
+        this.nrOfBuckets = nrOfBuckets;
+        this.bucketMs = window.toMillis() / nrOfBuckets;
+        this.bucketNotional = new double[nrOfBuckets];
+        this.bucketVolume = new long[nrOfBuckets];
+    }
+
+    public void update(long timeOfEventMs, long scaledPrice, long scaledVolume) {
+        long timeMs = hasLastTrade ? Math.max(timeOfEventMs, lastTradeTimeMs) : timeOfEventMs;
+        advance(timeMs);
+        int index = index(currentBucket);
+        double tradeNotional = (double) scaledPrice * scaledVolume;
+        bucketNotional[index] += tradeNotional;
+        bucketVolume[index] += scaledVolume;
+        notional += tradeNotional;
+        volume += scaledVolume;
+
+        hasLastTrade = true;
+        lastTradeTimeMs = timeMs;
+    }
+
+    /**
+     * Returns the scaled VWAP of the trades in the window ending at the given time, or 0 if there are none.
+     */
+    public long getVwap(long nowMs) {
+        advance(nowMs);
+        if (volume == 0) {
+            return 0;
+        }
+        return Math.round(notional / volume);
+    }
+
+    public boolean isEmpty(long nowMs) {
+        advance(nowMs);
+        return volume == 0;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    private void advance(long timeMs) {
+        long bucket = Math.floorDiv(timeMs, bucketMs);
+        if (currentBucket == Long.MIN_VALUE) {
+            currentBucket = bucket;
+            return;
+        }
+        if (bucket <= currentBucket) {
+            return;
+        }
+
+        long expiredBuckets = Math.min(bucket - currentBucket, nrOfBuckets);
+        for (long i = 1; i <= expiredBuckets; i++) {
+            expire(index(currentBucket + i));
+        }
+        currentBucket = bucket;
+    }
+
+    private void expire(int index) {
+        notional -= bucketNotional[index];
+        volume -= bucketVolume[index];
+        bucketNotional[index] = 0;
+        bucketVolume[index] = 0;
+    }
+
+    private int index(long bucket) {
+        return (int) Math.floorMod(bucket, nrOfBuckets);
+    }
+}
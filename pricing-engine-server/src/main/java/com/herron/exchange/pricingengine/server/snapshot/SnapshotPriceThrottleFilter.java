@@ -1,39 +1,81 @@
 package com.herron.exchange.pricingengine.server.snapshot;
 
-import com.herron.exchange.common.api.common.messages.common.Price;
-
 import java.time.Duration;
 
 public class SnapshotPriceThrottleFilter {
 
-    private final Duration minTimeBeforeUpdate;
+    private final long minTimeBeforeUpdateMs;
     private final double minPriceChange;
-    private PriceSnapshotCalculator.TimeAndPrice previousTimeAndPrice;
+    private boolean hasPrevious = false;
+    private long previousTimeOfEventMs;
+    private long previousScaledPrice;
+
+    public SnapshotPriceThrottleFilter(ThrottleSettings settings) {
+        this(settings.minTimeBeforeUpdate(), settings.minPriceChange());
+    }
 
     public SnapshotPriceThrottleFilter(Duration minTimeBeforeUpdate, double minPriceChange) {
-        this.minTimeBeforeUpdate = minTimeBeforeUpdate;
+        this.minTimeBeforeUpdateMs = minTimeBeforeUpdate.toMillis();
         this.minPriceChange = minPriceChange;
     }
 
-    public boolean filter(PriceSnapshotCalculator.TimeAndPrice timeAndPrice) {
-        if (accept(timeAndPrice)) {
-            previousTimeAndPrice = timeAndPrice;
+    public boolean filter(PriceSnapshotCalculator.PriceState priceState) {
+        if (accept(priceState)) {
+            markPublished(priceState);
             return false;
         }
         return true;
     }
 
-    private boolean accept(PriceSnapshotCalculator.TimeAndPrice timeAndPrice) {
-        if (timeAndPrice == null || !timeAndPrice.isValid()) {
+    /**
+     * Returns true if the price differs from the last published one, regardless of the thresholds.
+     * Used when flushing a pending price at the end of a throttle window.
+     */
+    public boolean isChanged(PriceSnapshotCalculator.PriceState priceState) {
+        return priceState.isValid() && (!hasPrevious || priceState.scaledPrice() != previousScaledPrice);
+    }
+
+    public void markPublished(PriceSnapshotCalculator.PriceState priceState) {
+        hasPrevious = true;
+        previousTimeOfEventMs = priceState.timeOfEventMs();
+        previousScaledPrice = priceState.scaledPrice();
+    }
+
+    public long getMinTimeBeforeUpdateMs() {
+        return minTimeBeforeUpdateMs;
+    }
+
+    /**
+     * Returns the time left of the throttle window started by the last published price, as seen from the event time
+     * of a rejected price. A price rejected after the window has ended, i.e. on the price change threshold, waits a
+     * full window.
+     */
+    public long getRemainingWindowMs(long timeOfEventMs) {
+        if (!hasPrevious) {
+            return minTimeBeforeUpdateMs;
+        }
+        long remainingMs = previousTimeOfEventMs + minTimeBeforeUpdateMs - timeOfEventMs;
+        return remainingMs > 0 ? Math.min(remainingMs, minTimeBeforeUpdateMs) : minTimeBeforeUpdateMs;
+    }
+
+    private boolean accept(PriceSnapshotCalculator.PriceState priceState) {
+        if (priceState == null || !priceState.isValid()) {
             return false;
         }
 
-        if (previousTimeAndPrice == null) {
+        if (!hasPrevious) {
             return true;
         }
 
-        return timeAndPrice.timestamp().timeBetweenMs(previousTimeAndPrice.timestamp()) >= minTimeBeforeUpdate.getSeconds() * 1000
-                && !timeAndPrice.price().equals(Price.ZERO)
-                && previousTimeAndPrice.price().percentageChange(timeAndPrice.price()) >= minPriceChange;
+        return Math.abs(priceState.timeOfEventMs() - previousTimeOfEventMs) >= minTimeBeforeUpdateMs
+                && priceState.scaledPrice() != 0
+                && percentageChange(previousScaledPrice, priceState.scaledPrice()) >= minPriceChange;
+    }
+
+    private static double percentageChange(long previousScaledPrice, long scaledPrice) {
+        if (previousScaledPrice == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.abs((double) (scaledPrice - previousScaledPrice) / previousScaledPrice);
     }
 }
@@ -0,0 +1,161 @@
+package com.herron.exchange.pricingengine.server.snapshot;
+
+import com.herron.exchange.common.api.common.api.Event;
+import com.herron.exchange.common.api.common.api.referencedata.instruments.DerivativeInstrument;
+import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataService;
+import com.herron.exchange.pricingengine.server.publisher.PricePublisher;
+import com.herron.exchange.pricingengine.server.snapshot.queue.WaitStrategy;
+import com.herron.exchange.pricingengine.server.snapshot.timer.HashedWheelTimer;
+import com.herron.exchange.pricingengine.server.theoretical.TheoreticalPriceCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+
+/**
+ * Fixed pool of snapshot workers. Products are mapped to workers through a consistent hash ring so that all events
+ * of a product are handled by the same worker thread, which keeps per-product ordering.
+ * All workers share one {@link HashedWheelTimer} for publishing throttled prices at the end of their throttle window.
+ */
+public class SnapshotWorkerPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotWorkerPool.class);
+    private static final int VIRTUAL_NODES_PER_WORKER = 128;
+    private final List<PriceSnapshotHandler> workers = new ArrayList<>();
+    private final NavigableMap<Integer, Integer> hashRing = new TreeMap<>();
+    private final Map<String, Integer> productIdToWorker = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService queueLoggerThread;
+    private final HashedWheelTimer flushTimer;
+    private final DerivativeRepricer derivativeRepricer;
+    private final PricePublisher pricePublisher;
+
+    public SnapshotWorkerPool(int nrOfWorkers,
+                              PricePublisher pricePublisher,
+                              MarketDataService marketDataService,
+                              TheoreticalPriceCalculator priceCalculator,
+                              PriceSnapshotSettings settings,
+                              HashedWheelTimer flushTimer,
+                              int ringBufferSize,
+                              WaitStrategy waitStrategy,
+                              boolean conflateQuotes) {
+        this.flushTimer = flushTimer;
+        this.derivativeRepricer = new DerivativeRepricer(this::queueRepricing);
+        this.pricePublisher = pricePublisher;
+        int poolSize = nrOfWorkers > 0 ? nrOfWorkers : Runtime.getRuntime().availableProcessors();
+        for (int workerIndex = 0; workerIndex < poolSize; workerIndex++) {
+            workers.add(new PriceSnapshotHandler(workerName(workerIndex), pricePublisher, marketDataService, priceCalculator, settings, derivativeRepricer, flushTimer, ringBufferSize, waitStrategy, conflateQuotes));
+            for (int node = 0; node < VIRTUAL_NODES_PER_WORKER; node++) {
+                hashRing.put(hash(workerName(workerIndex) + "#" + node), workerIndex);
+            }
+        }
+        this.queueLoggerThread = newScheduledThreadPool(1, new ThreadWrapper("Snapshot-Worker-Logger"));
+    }
+
+    public void init() {
+        LOGGER.info("Starting {} snapshot workers.", workers.size());
+        pricePublisher.init();
+        derivativeRepricer.init();
+        flushTimer.init();
+        workers.forEach(PriceSnapshotHandler::init);
+        queueLoggerThread.scheduleAtFixedRate(this::logStatus, 0, 60, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        flushTimer.stop();
+        workers.forEach(PriceSnapshotHandler::stop);
+        pricePublisher.stop();
+        queueLoggerThread.shutdown();
+    }
+
+    public void queueEvent(String productId, Event event) {
+        workers.get(getWorkerIndex(productId)).queueEvent(event);
+    }
+
+    /**
+     * Derivatives are repriced on the worker of their product, the same worker which handles their trades and quotes.
+     */
+    public void queueRepricing(DerivativeInstrument derivative) {
+        workers.get(getWorkerIndex(derivative.product().productId())).queueRepricing(derivative);
+    }
+
+    public long getConflatedQuotes() {
+        return workers.stream().mapToLong(PriceSnapshotHandler::getConflatedQuotes).sum();
+    }
+
+    public long getNrOfRepricings() {
+        return derivativeRepricer.getNrOfRepricings();
+    }
+
+    public long getDelayedFlushes() {
+        return workers.stream().mapToLong(PriceSnapshotHandler::getDelayedFlushes).sum();
+    }
+
+    public int getNrOfWorkers() {
+        return workers.size();
+    }
+
+    /**
+     * Returns the products currently assigned to each worker, keyed by worker name.
+     */
+    public Map<String, List<String>> getProductsPerWorker() {
+        Map<String, List<String>> workerToProducts = new TreeMap<>();
+        for (int workerIndex = 0; workerIndex < workers.size(); workerIndex++) {
+            workerToProducts.put(workerName(workerIndex), new ArrayList<>());
+        }
+        productIdToWorker.forEach((productId, workerIndex) -> workerToProducts.get(workerName(workerIndex)).add(productId));
+        return workerToProducts;
+    }
+
+    /**
+     * Returns the number of products currently assigned to each worker, keyed by worker name.
+     */
+    public Map<String, Integer> getProductDistribution() {
+        return getProductsPerWorker().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().size(), (a, b) -> a, TreeMap::new));
+    }
+
+    int getWorkerIndex(String productId) {
+        return productIdToWorker.computeIfAbsent(productId, this::lookupWorker);
+    }
+
+    private int lookupWorker(String productId) {
+        var entry = hashRing.ceilingEntry(hash(productId));
+        return entry != null ? entry.getValue() : hashRing.firstEntry().getValue();
+    }
+
+    private void logStatus() {
+        for (int workerIndex = 0; workerIndex < workers.size(); workerIndex++) {
+            var worker = workers.get(workerIndex);
+            LOGGER.info("{} message queue size: {}, conflated quotes: {}, delayed flushes: {}", workerName(workerIndex), worker.queueSize(), worker.getConflatedQuotes(), worker.getDelayedFlushes());
+        }
+        LOGGER.info("Products per snapshot worker: {}", getProductDistribution());
+        LOGGER.info("Repriced derivatives: {}", derivativeRepricer.getNrOfRepricings());
+    }
+
+    private static String workerName(int workerIndex) {
+        return "Snapshot-Worker-" + workerIndex;
+    }
+
+    /**
+     * Murmur3 finalizer applied to the string hash to spread similar product ids over the ring.
+     */
+    private static int hash(String value) {
+        int h = value.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
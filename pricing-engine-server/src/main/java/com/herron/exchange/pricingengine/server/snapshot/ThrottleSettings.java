@@ -0,0 +1,13 @@
+package com.herron.exchange.pricingengine.server.snapshot;
+
+import java.time.Duration;
+
+/**
+ * Thresholds of the {@link SnapshotPriceThrottleFilter}.
+ *
+ * @param minTimeBeforeUpdate minimum time between two published prices
+ * @param minPriceChange      minimum relative price change for a price to be published
+ */
+public record ThrottleSettings(Duration minTimeBeforeUpdate, double minPriceChange) {
+    public static final ThrottleSettings DEFAULT = new ThrottleSettings(Duration.ofSeconds(5), 0.001);
+}
@@ -1,22 +1,34 @@
 package com.herron.exchange.pricingengine.server.snapshot;
 
-import com.herron.exchange.common.api.common.messages.common.Price;
-import com.herron.exchange.common.api.common.messages.common.Volume;
-import com.herron.exchange.common.api.common.messages.trading.Trade;
-
+/**
+ * Cumulative volume weighted average price kept in primitive fields, reset at the start of each session.
+ * Prices and volumes are fixed point scaled longs. The notional and the total volume are accumulated as doubles, price
+ * times volume quickly leaves the range of a scaled long and so does the volume of a full session of large trades.
+ */
 public class VwapCalculator {
 
-    private Volume totalVolume = Volume.ZERO;
-    private Price vwp = Price.ZERO;
+    private double totalScaledVolume = 0;
+    private double notional = 0;
+
+    public long updateAndGetVwap(long scaledPrice, long scaledVolume) {
+        totalScaledVolume += (double) scaledVolume;
+        notional += (double) scaledPrice * scaledVolume;
+        return getVwap();
+    }
 
-    public Price updateAndGetVwap(Trade trade) {
-        totalVolume = totalVolume.add(trade.volume());
-        vwp = vwp.add(trade.price().multiply(trade.volume().getValue()));
-        return vwp.divide(totalVolume.getValue());
+    public long getVwap() {
+        if (totalScaledVolume == 0) {
+            return 0;
+        }
+        return Math.round(notional / totalScaledVolume);
     }
 
-    public Price getVwap() {
-        return vwp.divide(totalVolume.getValue());
+    public void reset() {
+        totalScaledVolume = 0;
+        notional = 0;
     }
 
+    public boolean isEmpty() {
+        return totalScaledVolume == 0;
+    }
 }
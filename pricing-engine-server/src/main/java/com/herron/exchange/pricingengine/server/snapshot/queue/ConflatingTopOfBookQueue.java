@@ -0,0 +1,90 @@
+package com.herron.exchange.pricingengine.server.snapshot.queue;
+
+import com.herron.exchange.common.api.common.messages.trading.ImmutableTopOfBook;
+import com.herron.exchange.common.api.common.messages.trading.TopOfBook;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Quote queue where updates for the same orderbook overwrite each other in place while they wait to be consumed.
+ * Each orderbook has one pending slot, and a slot is only queued when it goes from empty to pending. The backlog is
+ * therefore bounded by the number of distinct orderbooks, no matter how many quotes arrive in a burst.
+ * A newer quote that only carries one side keeps the other side of the pending quote.
+ */
+public class ConflatingTopOfBookQueue implements EventQueue<TopOfBook> {
+    private final Map<String, PendingQuote> orderbookIdToPendingQuote = new ConcurrentHashMap<>();
+    private final SpscRingBuffer<PendingQuote> pendingQuotes;
+    private final LongAdder conflatedUpdates = new LongAdder();
+
+    public ConflatingTopOfBookQueue(int capacity) {
+        this.pendingQuotes = new SpscRingBuffer<>(capacity);
+    }
+
+    @Override
+    public boolean offer(TopOfBook topOfBook) {
+        var pendingQuote = orderbookIdToPendingQuote.computeIfAbsent(topOfBook.orderbookId(), k -> new PendingQuote());
+        while (true) {
+            var pending = pendingQuote.latest.get();
+            if (pending == null) {
+                if (!pendingQuote.latest.compareAndSet(null, topOfBook)) {
+                    continue;
+                }
+                if (!pendingQuotes.offer(pendingQuote)) {
+                    pendingQuote.latest.set(null);
+                    return false;
+                }
+                return true;
+            }
+
+            if (pendingQuote.latest.compareAndSet(pending, merge(pending, topOfBook))) {
+                conflatedUpdates.increment();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public TopOfBook peek() {
+        var pendingQuote = pendingQuotes.peek();
+        return pendingQuote == null ? null : pendingQuote.latest.get();
+    }
+
+    @Override
+    public TopOfBook poll() {
+        var pendingQuote = pendingQuotes.poll();
+        return pendingQuote == null ? null : pendingQuote.latest.getAndSet(null);
+    }
+
+    @Override
+    public int size() {
+        return pendingQuotes.size();
+    }
+
+    public long getConflatedUpdates() {
+        return conflatedUpdates.sum();
+    }
+
+    private static TopOfBook merge(TopOfBook pending, TopOfBook newer) {
+        boolean keepBid = newer.bidQuote() == null && pending.bidQuote() != null;
+        boolean keepAsk = newer.askQuote() == null && pending.askQuote() != null;
+        if (!keepBid && !keepAsk) {
+            return newer;
+        }
+
+        var builder = ImmutableTopOfBook.builder().from(newer);
+        if (keepBid) {
+            builder.bidQuote(pending.bidQuote());
+        }
+        if (keepAsk) {
+            builder.askQuote(pending.askQuote());
+        }
+        return builder.build();
+    }
+
+    private static class PendingQuote {
+        private final AtomicReference<TopOfBook> latest = new AtomicReference<>();
+    }
+}
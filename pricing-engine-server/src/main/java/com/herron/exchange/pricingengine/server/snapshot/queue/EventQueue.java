@@ -0,0 +1,38 @@
+package com.herron.exchange.pricingengine.server.snapshot.queue;
+
+/**
+ * Queue between a single producer thread and a single snapshot worker thread.
+ */
+public interface EventQueue<T> {
+
+    /**
+     * Producer side. Returns false if the queue has no capacity left.
+     */
+    boolean offer(T element);
+
+    /**
+     * Producer side. Publishes the element, idling with the wait strategy while the queue is full.
+     */
+    default void put(T element, WaitStrategy waitStrategy) {
+        int idleCounter = 0;
+        while (!offer(element)) {
+            idleCounter = waitStrategy.idle(idleCounter);
+        }
+    }
+
+    /**
+     * Consumer side. Returns the next element without consuming it, or null if the queue is empty.
+     */
+    T peek();
+
+    /**
+     * Consumer side. Returns and consumes the next element, or null if the queue is empty.
+     */
+    T poll();
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.herron.exchange.pricingengine.server.snapshot.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pre-allocated single-producer/single-consumer ring buffer.
+ * Slots are claimed through monotonically increasing sequence numbers, the producer publishes with a release store
+ * and the consumer reads with an acquire load, so neither side takes a lock or allocates a node per element.
+ * Each side caches the other side's sequence to avoid touching the shared cache line on every call.
+ */
+public class SpscRingBuffer<T> implements EventQueue<T> {
+    private final Object[] buffer;
+    private final int mask;
+    private final int capacity;
+    private final PaddedSequence producerSequence = new PaddedSequence();
+    private final PaddedSequence consumerSequence = new PaddedSequence();
+    private long cachedConsumerSequence = 0;
+    private long cachedProducerSequence = 0;
+
+    public SpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException(String.format("Ring buffer capacity %s must be at least 2.", requestedCapacity));
+        }
+        this.capacity = nextPowerOfTwo(requestedCapacity);
+        this.mask = capacity - 1;
+        this.buffer = new Object[capacity];
+    }
+
+    @Override
+    public boolean offer(T element) {
+        long sequence = producerSequence.getPlain();
+        if (sequence - cachedConsumerSequence >= capacity) {
+            cachedConsumerSequence = consumerSequence.getAcquire();
+            if (sequence - cachedConsumerSequence >= capacity) {
+                return false;
+            }
+        }
+        buffer[(int) (sequence & mask)] = element;
+        producerSequence.setRelease(sequence + 1);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        long sequence = consumerSequence.getPlain();
+        if (sequence >= cachedProducerSequence) {
+            cachedProducerSequence = producerSequence.getAcquire();
+            if (sequence >= cachedProducerSequence) {
+                return null;
+            }
+        }
+        return (T) buffer[(int) (sequence & mask)];
+    }
+
+    @Override
+    public T poll() {
+        T element = peek();
+        if (element == null) {
+            return null;
+        }
+        long sequence = consumerSequence.getPlain();
+        buffer[(int) (sequence & mask)] = null;
+        consumerSequence.setRelease(sequence + 1);
+        return element;
+    }
+
+    @Override
+    public int size() {
+        long size = producerSequence.getAcquire() - consumerSequence.getAcquire();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    @SuppressWarnings("unused")
+    private static class PaddedSequence extends AtomicLong {
+        private long p1, p2, p3, p4, p5, p6, p7;
+    }
+}
@@ -0,0 +1,47 @@
+package com.herron.exchange.pricingengine.server.snapshot.queue;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Strategy used by the ring buffer threads while there is nothing to consume or no capacity to publish.
+ * The idle counter is reset by the caller as soon as progress is made.
+ */
+public enum WaitStrategy {
+    BUSY_SPIN {
+        @Override
+        public int idle(int idleCounter) {
+            Thread.onSpinWait();
+            return idleCounter + 1;
+        }
+    },
+    YIELD {
+        @Override
+        public int idle(int idleCounter) {
+            if (idleCounter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return idleCounter + 1;
+        }
+    },
+    PARK {
+        @Override
+        public int idle(int idleCounter) {
+            if (idleCounter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (idleCounter < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            return idleCounter + 1;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    public abstract int idle(int idleCounter);
+}
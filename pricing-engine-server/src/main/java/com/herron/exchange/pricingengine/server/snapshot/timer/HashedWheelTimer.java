@@ -0,0 +1,136 @@
+package com.herron.exchange.pricingengine.server.snapshot.timer;
+
+import com.herron.exchange.common.api.common.wrappers.ThreadWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Single threaded hashed wheel timer shared by all instruments.
+ * Timeouts are hashed into a wheel of buckets by their deadline tick, so scheduling is O(1) and each tick only visits
+ * the timeouts of one bucket. Deadlines are accurate to one tick. Tasks run on the timer thread and must be short.
+ */
+public class HashedWheelTimer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<Timeout>[] wheel;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean isRunning = new AtomicBoolean(false);
+    private final ExecutorService service;
+    private final LongSupplier nanoClock;
+    private volatile long startTimeNanos;
+    private long tick = 0;
+
+    public HashedWheelTimer(String id, long tickDuration, TimeUnit unit, int wheelSize) {
+        this(id, tickDuration, unit, wheelSize, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    HashedWheelTimer(String id, long tickDuration, TimeUnit unit, int wheelSize, LongSupplier nanoClock) {
+        if (wheelSize < 1 || unit.toNanos(tickDuration) <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid timer tick %s %s and wheel size %s.", tickDuration, unit, wheelSize));
+        }
+        int size = Integer.highestOneBit(wheelSize - 1 == 0 ? 1 : wheelSize - 1) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.wheel = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.service = Executors.newSingleThreadExecutor(new ThreadWrapper(id));
+        this.nanoClock = nanoClock;
+        this.startTimeNanos = nanoClock.getAsLong();
+    }
+
+    public void init() {
+        if (isRunning.compareAndSet(false, true)) {
+            startTimeNanos = nanoClock.getAsLong();
+            service.execute(this::run);
+        }
+    }
+
+    public void stop() {
+        isRunning.set(false);
+        service.shutdown();
+    }
+
+    /**
+     * Schedules the task to run once the delay has passed. Can be called from any thread, a task scheduled by a running
+     * task runs on a later tick even with a delay of 0. Pending tasks are dropped when the timer is stopped.
+     */
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        newTimeouts.add(new Timeout(task, nanoClock.getAsLong() + unit.toNanos(delay)));
+    }
+
+    private void run() {
+        while (isRunning.get()) {
+            waitForNextTick();
+            tick();
+        }
+    }
+
+    /**
+     * Runs the timeouts of the current tick, only called by the timer thread or by tests driving the timer.
+     */
+    void tick() {
+        transferNewTimeouts();
+        expireTimeouts(wheel[(int) (tick & mask)]);
+        tick++;
+    }
+
+    private void waitForNextTick() {
+        long deadline = startTimeNanos + (tick + 1) * tickNanos;
+        long sleepNanos;
+        while ((sleepNanos = deadline - nanoClock.getAsLong()) > 0) {
+            LockSupport.parkNanos(sleepNanos);
+        }
+    }
+
+    private void transferNewTimeouts() {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            long deadlineTick = Math.max(tick, (timeout.deadlineNanos - startTimeNanos + tickNanos - 1) / tickNanos);
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+            wheel[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(ArrayDeque<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            var timeout = iterator.next();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+            iterator.remove();
+            try {
+                timeout.task.run();
+            } catch (Exception e) {
+                LOGGER.warn("Unhandled exception in timer task.", e);
+            }
+        }
+    }
+
+    private static class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.herron.exchange.pricingengine.server.theoretical;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Yields of a curve tabulated on an evenly spaced tenor grid from 0 up to the max time to maturity. Lookups interpolate
+ * linearly between the two closest tenors, times to maturity outside of the grid are evaluated on the exact curve.
+ */
+public final class TabulatedYieldCurve {
+    private final DoubleUnaryOperator exactCurve;
+    private final double maxTtm;
+    private final double pointsPerYear;
+    private final double[] yields;
+
+    private TabulatedYieldCurve(DoubleUnaryOperator exactCurve, double maxTtm, int pointsPerYear, double[] yields) {
+        this.exactCurve = exactCurve;
+        this.maxTtm = maxTtm;
+        this.pointsPerYear = pointsPerYear;
+        this.yields = yields;
+    }
+
+    public static TabulatedYieldCurve tabulate(DoubleUnaryOperator exactCurve, double maxTtm, int pointsPerYear) {
+        if (maxTtm <= 0 || pointsPerYear < 1) {
+            throw new IllegalArgumentException(String.format("Invalid tenor grid, max ttm %s and %s points per year.", maxTtm, pointsPerYear));
+        }
+        int nrOfPoints = (int) Math.ceil(maxTtm * pointsPerYear) + 1;
+        double[] yields = new double[nrOfPoints];
+        for (int index = 0; index < nrOfPoints; index++) {
+            yields[index] = exactCurve.applyAsDouble((double) index / pointsPerYear);
+        }
+        return new TabulatedYieldCurve(exactCurve, (double) (nrOfPoints - 1) / pointsPerYear, pointsPerYear, yields);
+    }
+
+    public double getYield(double ttm) {
+        if (ttm < 0 || ttm > maxTtm) {
+            return exactCurve.applyAsDouble(ttm);
+        }
+        return interpolate(yields, ttm);
+    }
+
+    private double interpolate(double[] values, double ttm) {
+        double position = ttm * pointsPerYear;
+        int index = Math.min((int) position, values.length - 2);
+        double weight = position - index;
+        return values[index] + weight * (values[index + 1] - values[index]);
+    }
+}
@@ -0,0 +1,45 @@
+package com.herron.exchange.pricingengine.server.theoretical;
+
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataYieldCurve;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabulated yield curves for the risk free rates of the option calculator, one per curve id. A curve is tabulated once
+ * per curve entry, a new entry for the curve id is a new version and replaces the tabulated curve on its first lookup.
+ * Bonds are discounted by the library bond model on the exact curve.
+ */
+public class TabulatedYieldCurveCache {
+    private final TabulatedYieldCurveSettings settings;
+    private final Map<String, Tabulation> curveIdToTabulation = new ConcurrentHashMap<>();
+
+    public TabulatedYieldCurveCache(TabulatedYieldCurveSettings settings) {
+        this.settings = settings;
+    }
+
+    public double getYield(MarketDataYieldCurve yieldCurveEntry, double ttm) {
+        if (!settings.enabled()) {
+            return yieldCurveEntry.yieldCurve().getYield(ttm);
+        }
+        return getTabulatedCurve(yieldCurveEntry).getYield(ttm);
+    }
+
+    private TabulatedYieldCurve getTabulatedCurve(MarketDataYieldCurve yieldCurveEntry) {
+        var curveId = yieldCurveEntry.yieldCurve().getId();
+        var tabulation = curveIdToTabulation.get(curveId);
+        if (tabulation != null && tabulation.source() == yieldCurveEntry) {
+            return tabulation.curve();
+        }
+        return curveIdToTabulation.compute(curveId, (k, current) -> {
+            if (current != null && current.source() == yieldCurveEntry) {
+                return current;
+            }
+            var yieldCurve = yieldCurveEntry.yieldCurve();
+            return new Tabulation(yieldCurveEntry, TabulatedYieldCurve.tabulate(yieldCurve::getYield, settings.maxTtm(), settings.pointsPerYear()));
+        }).curve();
+    }
+
+    private record Tabulation(MarketDataYieldCurve source, TabulatedYieldCurve curve) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.herron.exchange.pricingengine.server.theoretical;
+
+/**
+ * Settings of the {@link TabulatedYieldCurveCache}.
+ *
+ * @param enabled       whether yields are read from tabulated curves, otherwise every lookup evaluates the curve
+ * @param maxTtm        the longest tabulated time to maturity in years
+ * @param pointsPerYear number of tenors per year, 365 tabulates one point per day
+ */
+public record TabulatedYieldCurveSettings(boolean enabled, double maxTtm, int pointsPerYear) {
+    public static final TabulatedYieldCurveSettings DISABLED = new TabulatedYieldCurveSettings(false, 0, 0);
+}
@@ -0,0 +1,53 @@
+package com.herron.exchange.pricingengine.server.theoretical;
+
+import com.herron.exchange.common.api.common.api.pricing.PriceModelResult;
+import com.herron.exchange.common.api.common.api.referencedata.instruments.Instrument;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Memoizes the theoretical price of a single instrument. The cached result is reused until the version of one of its
+ * market data inputs changes or it is older than the max staleness, which bounds the drift from time to maturity.
+ * Not thread safe, each instance is owned by one snapshot calculator. Hits and misses are recorded in the
+ * {@link TheoreticalPriceMetrics} of the calculator.
+ */
+public class TheoreticalPriceCache {
+    private final Instrument instrument;
+    private final TheoreticalPriceCalculator priceCalculator;
+    private final TheoreticalPriceMetrics metrics;
+    private final long maxStalenessMs;
+    private final LongSupplier clock;
+    private PriceModelResult result;
+    private long inputVersion;
+    private long calculatedAtMs;
+
+    public TheoreticalPriceCache(Instrument instrument, TheoreticalPriceCalculator priceCalculator, Duration maxStaleness) {
+        this(instrument, priceCalculator, maxStaleness, System::currentTimeMillis);
+    }
+
+    TheoreticalPriceCache(Instrument instrument, TheoreticalPriceCalculator priceCalculator, Duration maxStaleness, LongSupplier clock) {
+        this.instrument = instrument;
+        this.priceCalculator = priceCalculator;
+        this.metrics = priceCalculator.getMetrics();
+        this.maxStalenessMs = maxStaleness.toMillis();
+        this.clock = clock;
+    }
+
+    public PriceModelResult getPrice() {
+        long nowMs = clock.getAsLong();
+        long currentInputVersion = priceCalculator.getInputVersion(instrument);
+        if (result != null && currentInputVersion == inputVersion && nowMs - calculatedAtMs < maxStalenessMs) {
+            metrics.recordHit();
+            return result;
+        }
+
+        long startTime = System.nanoTime();
+        result = priceCalculator.calculatePrice(instrument, Timestamp.from(nowMs));
+        inputVersion = currentInputVersion;
+        calculatedAtMs = nowMs;
+        metrics.recordMiss(System.nanoTime() - startTime);
+        return result;
+    }
+}
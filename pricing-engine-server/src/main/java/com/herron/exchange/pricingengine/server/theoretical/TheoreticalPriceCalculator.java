@@ -18,6 +18,7 @@ public class TheoreticalPriceCalculator {
     private final BondPriceCalculator bondPriceCalculator;
     private final OptionCalculator optionCalculator;
     private final FuturesCalculator futuresCalculator;
+    private final TheoreticalPriceMetrics metrics = new TheoreticalPriceMetrics();
 
     public TheoreticalPriceCalculator(BondPriceCalculator bondPriceCalculator, OptionCalculator optionCalculator, FuturesCalculator futuresCalculator) {
         this.bondPriceCalculator = bondPriceCalculator;
@@ -33,6 +34,21 @@ public class TheoreticalPriceCalculator {
         }
     }
 
+    public TheoreticalPriceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns a value which changes whenever any market data input to the theoretical price of the instrument changes.
+     */
+    public long getInputVersion(Instrument instrument) {
+        return switch (instrument.instrumentType()) {
+            case BILL, BOND, PERPETUAL_BOND -> bondPriceCalculator.getInputVersion((BondInstrument) instrument);
+            case OPTION -> optionCalculator.getInputVersion((OptionInstrument) instrument);
+            default -> 0;
+        };
+    }
+
     private PriceModelResult calculate(Instrument instrument, Timestamp valuationTime) {
         return switch (instrument.instrumentType()) {
             case BILL, BOND, PERPETUAL_BOND -> bondPriceCalculator.calculate((BondInstrument) instrument, valuationTime);
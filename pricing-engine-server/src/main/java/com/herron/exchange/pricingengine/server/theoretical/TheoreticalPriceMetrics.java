@@ -0,0 +1,51 @@
+package com.herron.exchange.pricingengine.server.theoretical;
+
+import com.herron.exchange.pricingengine.server.marketdata.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counters of the theoretical price caches and the latencies of the calculations done on a miss.
+ * Hits only increment a counter, so reading a cached price stays cheap.
+ */
+public class TheoreticalPriceMetrics {
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LatencyHistogram calculationLatencies = new LatencyHistogram();
+
+    public void recordHit() {
+        cacheHits.increment();
+    }
+
+    public void recordMiss(long calculationNanos) {
+        cacheMisses.increment();
+        calculationLatencies.record(calculationNanos);
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public CacheStatistics getCacheStatistics() {
+        return new CacheStatistics(
+                getCacheHits(),
+                getCacheMisses(),
+                calculationLatencies.getValueAtPercentile(50),
+                calculationLatencies.getValueAtPercentile(99),
+                calculationLatencies.getValueAtPercentile(99.9),
+                calculationLatencies.getMaxValue()
+        );
+    }
+
+    public record CacheStatistics(long hits,
+                                  long misses,
+                                  long p50CalculationNanos,
+                                  long p99CalculationNanos,
+                                  long p999CalculationNanos,
+                                  long maxCalculationNanos) {
+    }
+}
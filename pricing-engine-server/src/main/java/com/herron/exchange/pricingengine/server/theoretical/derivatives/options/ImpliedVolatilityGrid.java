@@ -0,0 +1,125 @@
+package com.herron.exchange.pricingengine.server.theoretical.derivatives.options;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * An implied volatility surface tabulated on an evenly spaced grid of time to maturity and strike. Lookups inside the
+ * grid are a bilinear interpolation in a dense array, lookups outside it must go to the exact surface.
+ */
+public final class ImpliedVolatilityGrid {
+    private final double minTtm;
+    private final double ttmStep;
+    private final int nrOfTtms;
+    private final double minStrike;
+    private final double strikeStep;
+    private final int nrOfStrikes;
+    private final double maxTtm;
+    private final double maxStrike;
+    private final double[] volatilities;
+
+    private ImpliedVolatilityGrid(double minTtm,
+                                  double maxTtm,
+                                  int nrOfTtms,
+                                  double minStrike,
+                                  double maxStrike,
+                                  int nrOfStrikes,
+                                  double[] volatilities) {
+        this.minTtm = minTtm;
+        this.maxTtm = maxTtm;
+        this.nrOfTtms = nrOfTtms;
+        this.ttmStep = nrOfTtms > 1 ? (maxTtm - minTtm) / (nrOfTtms - 1) : 0;
+        this.minStrike = minStrike;
+        this.maxStrike = maxStrike;
+        this.nrOfStrikes = nrOfStrikes;
+        this.strikeStep = nrOfStrikes > 1 ? (maxStrike - minStrike) / (nrOfStrikes - 1) : 0;
+        this.volatilities = volatilities;
+    }
+
+    /**
+     * Evaluates the surface at every grid point. A range where min equals max collapses to a single point.
+     */
+    public static ImpliedVolatilityGrid tabulate(DoubleBinaryOperator surface,
+                                                 double minTtm,
+                                                 double maxTtm,
+                                                 int nrOfTtms,
+                                                 double minStrike,
+                                                 double maxStrike,
+                                                 int nrOfStrikes) {
+        if (maxTtm < minTtm || maxStrike < minStrike || nrOfTtms < 1 || nrOfStrikes < 1) {
+            throw new IllegalArgumentException(String.format("Invalid grid ttm [%s, %s] x %s, strike [%s, %s] x %s.",
+                    minTtm, maxTtm, nrOfTtms, minStrike, maxStrike, nrOfStrikes));
+        }
+        int ttms = maxTtm > minTtm ? Math.max(2, nrOfTtms) : 1;
+        int strikes = maxStrike > minStrike ? Math.max(2, nrOfStrikes) : 1;
+        var grid = new ImpliedVolatilityGrid(minTtm, maxTtm, ttms, minStrike, maxStrike, strikes, new double[ttms * strikes]);
+        for (int ttmIndex = 0; ttmIndex < ttms; ttmIndex++) {
+            double ttm = grid.getTtm(ttmIndex);
+            for (int strikeIndex = 0; strikeIndex < strikes; strikeIndex++) {
+                grid.volatilities[ttmIndex * strikes + strikeIndex] = surface.applyAsDouble(ttm, grid.getStrike(strikeIndex));
+            }
+        }
+        return grid;
+    }
+
+    public boolean contains(double ttm, double strike) {
+        return ttm >= minTtm && ttm <= maxTtm && strike >= minStrike && strike <= maxStrike;
+    }
+
+    /**
+     * Only valid for points the grid {@link #contains}.
+     */
+    public double getImpliedVolatility(double ttm, double strike) {
+        int ttmIndex = 0;
+        double ttmWeight = 0;
+        if (nrOfTtms > 1) {
+            double position = (ttm - minTtm) / ttmStep;
+            ttmIndex = Math.min((int) position, nrOfTtms - 2);
+            ttmWeight = position - ttmIndex;
+        }
+        int strikeIndex = 0;
+        double strikeWeight = 0;
+        if (nrOfStrikes > 1) {
+            double position = (strike - minStrike) / strikeStep;
+            strikeIndex = Math.min((int) position, nrOfStrikes - 2);
+            strikeWeight = position - strikeIndex;
+        }
+
+        int index = ttmIndex * nrOfStrikes + strikeIndex;
+        int nextStrike = nrOfStrikes > 1 ? 1 : 0;
+        int nextTtm = nrOfTtms > 1 ? nrOfStrikes : 0;
+        double lower = volatilities[index] + strikeWeight * (volatilities[index + nextStrike] - volatilities[index]);
+        double upper = volatilities[index + nextTtm] + strikeWeight * (volatilities[index + nextTtm + nextStrike] - volatilities[index + nextTtm]);
+        return lower + ttmWeight * (upper - lower);
+    }
+
+    /**
+     * Returns the largest absolute difference to the surface at the centre of every grid cell, which is where the
+     * bilinear interpolation is furthest from the grid points.
+     */
+    public double getMaxError(DoubleBinaryOperator surface) {
+        double maxError = 0;
+        int ttmCells = Math.max(1, nrOfTtms - 1);
+        int strikeCells = Math.max(1, nrOfStrikes - 1);
+        for (int ttmIndex = 0; ttmIndex < ttmCells; ttmIndex++) {
+            double ttm = nrOfTtms > 1 ? getTtm(ttmIndex) + ttmStep / 2 : minTtm;
+            for (int strikeIndex = 0; strikeIndex < strikeCells; strikeIndex++) {
+                double strike = nrOfStrikes > 1 ? getStrike(strikeIndex) + strikeStep / 2 : minStrike;
+                maxError = Math.max(maxError, Math.abs(getImpliedVolatility(ttm, strike) - surface.applyAsDouble(ttm, strike)));
+            }
+        }
+        return maxError;
+    }
+
+    private double getTtm(int ttmIndex) {
+        return ttmIndex == nrOfTtms - 1 ? maxTtm : minTtm + ttmIndex * ttmStep;
+    }
+
+    private double getStrike(int strikeIndex) {
+        return strikeIndex == nrOfStrikes - 1 ? maxStrike : minStrike + strikeIndex * strikeStep;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImpliedVolatilityGrid[ttm=[%s, %s] x %s, strike=[%s, %s] x %s]", minTtm, maxTtm, nrOfTtms, minStrike, maxStrike, nrOfStrikes);
+    }
+}
@@ -0,0 +1,62 @@
+package com.herron.exchange.pricingengine.server.theoretical.derivatives.options;
+
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataImpliedVolatilitySurface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * The grid of one implied volatility surface key. A grid belongs to exactly one surface entry and is tabulated once,
+ * off the pricing threads, when the surface version is calibrated. It covers the strikes and maturities of the whole
+ * option chain of the surface, times to maturity shrink during the day so the lower end is extended by a day.
+ * Lookups of a version which is not tabulated yet, or points outside of its grid, evaluate the surface exactly. A version
+ * which cannot be tabulated within the tolerance is remembered and evaluated exactly until the next version.
+ */
+final class ImpliedVolatilityGridCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImpliedVolatilityGridCache.class);
+    private static final double MIN_TTM_MARGIN = 1.0 / 365;
+    private final ImpliedVolatilityGridSettings settings;
+    private volatile TabulatedSurface tabulatedSurface;
+
+    ImpliedVolatilityGridCache(ImpliedVolatilityGridSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Returns the grid of the surface version, null if it is not tabulated or failed the tolerance check.
+     */
+    ImpliedVolatilityGrid getGrid(MarketDataImpliedVolatilitySurface surface) {
+        var current = tabulatedSurface;
+        return current != null && current.surface == surface ? current.grid : null;
+    }
+
+    void tabulate(MarketDataImpliedVolatilitySurface surface, double minTtm, double maxTtm, double minStrike, double maxStrike) {
+        tabulate(surface, surface.impliedVolatilitySurface()::getImpliedVolatility, minTtm, maxTtm, minStrike, maxStrike);
+    }
+
+    /**
+     * Tabulates the surface version over the range, a version is only tabulated once.
+     */
+    synchronized void tabulate(MarketDataImpliedVolatilitySurface surface,
+                               DoubleBinaryOperator exactSurface,
+                               double minTtm,
+                               double maxTtm,
+                               double minStrike,
+                               double maxStrike) {
+        var current = tabulatedSurface;
+        if (current != null && current.surface == surface) {
+            return;
+        }
+        var grid = ImpliedVolatilityGrid.tabulate(exactSurface, Math.max(0, minTtm - MIN_TTM_MARGIN), maxTtm, settings.nrOfTtms(), minStrike, maxStrike, settings.nrOfStrikes());
+        double maxError = grid.getMaxError(exactSurface);
+        if (maxError > settings.tolerance()) {
+            LOGGER.warn("Not using {}, max error {} exceeds tolerance {}.", grid, maxError, settings.tolerance());
+            grid = null;
+        }
+        tabulatedSurface = new TabulatedSurface(surface, grid);
+    }
+
+    private record TabulatedSurface(MarketDataImpliedVolatilitySurface surface, ImpliedVolatilityGrid grid) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.herron.exchange.pricingengine.server.theoretical.derivatives.options;
+
+/**
+ * Settings of the {@link ImpliedVolatilityGrid} used by the {@link OptionCalculator}.
+ *
+ * @param enabled     whether volatilities are read from grids, otherwise every lookup evaluates the surface
+ * @param nrOfTtms    number of grid points along the time to maturity
+ * @param nrOfStrikes number of grid points along the strike
+ * @param tolerance   maximum absolute volatility error of a grid, surfaces which cannot be tabulated within it are
+ *                    always evaluated exactly
+ */
+public record ImpliedVolatilityGridSettings(boolean enabled, int nrOfTtms, int nrOfStrikes, double tolerance) {
+    public static final ImpliedVolatilityGridSettings DISABLED = new ImpliedVolatilityGridSettings(false, 0, 0, 0);
+}
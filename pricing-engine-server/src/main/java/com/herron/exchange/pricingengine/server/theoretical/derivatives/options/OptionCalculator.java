@@ -1,70 +1,118 @@
 package com.herron.exchange.pricingengine.server.theoretical.derivatives.options;
 
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
 import com.herron.exchange.common.api.common.api.pricing.PriceModelResult;
-import com.herron.exchange.common.api.common.api.referencedata.instruments.Instrument;
 import com.herron.exchange.common.api.common.api.referencedata.instruments.OptionInstrument;
-import com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter;
-import com.herron.exchange.common.api.common.enums.Status;
 import com.herron.exchange.common.api.common.messages.common.Timestamp;
 import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
-import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataForwardPriceCurveRequest;
-import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataImpliedVolatilitySurfaceRequest;
-import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataPriceRequest;
-import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataYieldCurveRequest;
-import com.herron.exchange.common.api.common.messages.marketdata.response.MarketDataForwardPriceCurveResponse;
-import com.herron.exchange.common.api.common.messages.marketdata.response.MarketDataImpliedVolatilitySurfaceResponse;
-import com.herron.exchange.common.api.common.messages.marketdata.response.MarketDataPriceResponse;
-import com.herron.exchange.common.api.common.messages.marketdata.response.MarketDataYieldCurveResponse;
-import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataForwardPriceCurveStaticKey;
-import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataImpliedVolatilitySurfaceStaticKey;
-import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
-import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataYieldCurveStaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataForwardPriceCurve;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataImpliedVolatilitySurface;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataYieldCurve;
 import com.herron.exchange.common.api.common.messages.pricing.BlackScholesPriceModelParameters;
 import com.herron.exchange.common.api.common.messages.pricing.FailedPriceModelResult;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataHandle;
 import com.herron.exchange.pricingengine.server.marketdata.MarketDataService;
+import com.herron.exchange.pricingengine.server.marketdata.internal.OptionChainDataset;
+import com.herron.exchange.pricingengine.server.theoretical.TabulatedYieldCurveCache;
+import com.herron.exchange.pricingengine.server.theoretical.TabulatedYieldCurveSettings;
 import com.herron.exchange.quantlib.pricemodels.derivatives.options.Black76;
 import com.herron.exchange.quantlib.pricemodels.derivatives.options.BlackScholesMerton;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class OptionCalculator {
     private final MarketDataService marketDataService;
+    private final ImpliedVolatilityGridSettings gridSettings;
+    private final TabulatedYieldCurveCache yieldCurveCache;
+    private final Map<String, OptionInputs> instrumentIdToInputs = new ConcurrentHashMap<>();
+    private final Map<StaticKey, ImpliedVolatilityGridCache> surfaceKeyToGridCache = new ConcurrentHashMap<>();
 
     public OptionCalculator(MarketDataService marketDataService) {
+        this(marketDataService, ImpliedVolatilityGridSettings.DISABLED, new TabulatedYieldCurveCache(TabulatedYieldCurveSettings.DISABLED));
+    }
+
+    public OptionCalculator(MarketDataService marketDataService,
+                            ImpliedVolatilityGridSettings gridSettings,
+                            TabulatedYieldCurveCache yieldCurveCache) {
         this.marketDataService = marketDataService;
+        this.gridSettings = gridSettings;
+        this.yieldCurveCache = yieldCurveCache;
+        if (gridSettings.enabled()) {
+            marketDataService.addCalibrationListener(this::tabulateSurfaces);
+        }
+    }
+
+    /**
+     * Returns a value which changes whenever any of the market data the option price depends on changes.
+     */
+    public long getInputVersion(OptionInstrument option) {
+        return getInputs(option).getVersion();
     }
 
+    /**
+     * All market data inputs of one calculation are read from a single pinned snapshot, so the price never mixes
+     * inputs from different points in time.
+     */
     public PriceModelResult calculate(OptionInstrument option, Timestamp valuationTime) {
         return switch (option.priceModel()) {
-            case BLACK_SCHOLES -> calculateWithBlackScholes(option, valuationTime);
-            case BLACK_76 -> calculateWithBlack76(option, valuationTime);
+            case BLACK_SCHOLES, BLACK_76 -> calculateWithInputs(option, valuationTime);
             case BARONE_ADESI_WHALEY -> FailedPriceModelResult.createFailedResult("");
             default -> FailedPriceModelResult.createFailedResult(String.format("Option price model %s not supported.", option));
         };
     }
 
-    private PriceModelResult calculateWithBlackScholes(OptionInstrument option, Timestamp valuationTime) {
-        var parameters = (BlackScholesPriceModelParameters) option.priceModelParameters();
-        var yieldCurveResponse = requestYieldCurve(parameters.yieldCurveId(), valuationTime);
-        if (yieldCurveResponse.status() == Status.ERROR) {
-            return FailedPriceModelResult.createFailedResult(yieldCurveResponse.error());
+    private PriceModelResult calculateWithInputs(OptionInstrument option, Timestamp valuationTime) {
+        var inputs = getInputs(option);
+        if (inputs.underlyingPrice() == null) {
+            return FailedPriceModelResult.createFailedResult("");
         }
 
-        var underlyingPriceResponse = requestPrice(option, valuationTime);
-        if (underlyingPriceResponse.status() == Status.ERROR) {
-            return FailedPriceModelResult.createFailedResult(underlyingPriceResponse.error());
+        var snapshot = marketDataService.snapshot();
+        var timeComponentKey = ImmutableDefaultTimeComponentKey.builder().timeOfEvent(valuationTime).build();
+        var yieldCurve = inputs.yieldCurve().asOf(snapshot, timeComponentKey);
+        if (yieldCurve == null) {
+            return createMissingDataResult(inputs.yieldCurve());
         }
 
-        var impliedVolatilitySurfaceResponse = requestVolatilitySurface(option.instrumentId(), valuationTime);
-        if (impliedVolatilitySurfaceResponse.status() == Status.ERROR) {
-            return FailedPriceModelResult.createFailedResult(impliedVolatilitySurfaceResponse.error());
+        var underlyingPrice = inputs.underlyingPrice().asOf(snapshot, timeComponentKey);
+        if (underlyingPrice == null) {
+            return createMissingDataResult(inputs.underlyingPrice());
         }
 
-        var ivSurface = impliedVolatilitySurfaceResponse.impliedVolatilitySurfaceEntry().impliedVolatilitySurface();
+        var impliedVolatilitySurface = inputs.impliedVolatilitySurface().asOf(snapshot, timeComponentKey);
+        if (impliedVolatilitySurface == null) {
+            return createMissingDataResult(inputs.impliedVolatilitySurface());
+        }
+
+        return switch (option.priceModel()) {
+            case BLACK_SCHOLES -> calculateWithBlackScholes(option, valuationTime, yieldCurve, underlyingPrice, impliedVolatilitySurface, inputs.gridCache());
+            default -> calculateWithBlack76(option,
+                    valuationTime,
+                    yieldCurve,
+                    underlyingPrice,
+                    impliedVolatilitySurface,
+                    inputs.gridCache(),
+                    inputs.forwardPriceCurve() == null ? null : inputs.forwardPriceCurve().asOf(snapshot, timeComponentKey));
+        };
+    }
+
+    private PriceModelResult calculateWithBlackScholes(OptionInstrument option,
+                                                       Timestamp valuationTime,
+                                                       MarketDataYieldCurve yieldCurve,
+                                                       MarketDataPrice underlyingPrice,
+                                                       MarketDataImpliedVolatilitySurface impliedVolatilitySurface,
+                                                       ImpliedVolatilityGridCache gridCache) {
+        var parameters = (BlackScholesPriceModelParameters) option.priceModelParameters();
 
         double ttm = BlackScholesMerton.calculateTimeToMaturity(valuationTime, option);
         double strikePrice = option.strikePrice().getRealValue();
-        double spotPrice = underlyingPriceResponse.marketDataPrice().price().getRealValue();
-        double riskFreeRate = yieldCurveResponse.yieldCurveEntry().yieldCurve().getYield(ttm);
-        double impliedVolatility = ivSurface.getImpliedVolatility(ttm, strikePrice);
+        double spotPrice = underlyingPrice.price().getRealValue();
+        double riskFreeRate = yieldCurveCache.getYield(yieldCurve, ttm);
+        double impliedVolatility = getImpliedVolatility(impliedVolatilitySurface, gridCache, ttm, strikePrice);
         return BlackScholesMerton.calculateOptionPrice(
                 valuationTime,
                 option.optionType(),
@@ -77,35 +125,24 @@ public class OptionCalculator {
         );
     }
 
-    private PriceModelResult calculateWithBlack76(OptionInstrument option, Timestamp valuationTime) {
+    private PriceModelResult calculateWithBlack76(OptionInstrument option,
+                                                  Timestamp valuationTime,
+                                                  MarketDataYieldCurve yieldCurve,
+                                                  MarketDataPrice underlyingPrice,
+                                                  MarketDataImpliedVolatilitySurface impliedVolatilitySurface,
+                                                  ImpliedVolatilityGridCache gridCache,
+                                                  MarketDataForwardPriceCurve forwardPriceCurve) {
         var parameters = (BlackScholesPriceModelParameters) option.priceModelParameters();
-        var yieldCurveResponse = requestYieldCurve(parameters.yieldCurveId(), valuationTime);
-        if (yieldCurveResponse.status() == Status.ERROR) {
-            return FailedPriceModelResult.createFailedResult(yieldCurveResponse.error());
-        }
-
-        var underlyingPriceResponse = requestPrice(option, valuationTime);
-        if (underlyingPriceResponse.status() == Status.ERROR) {
-            return FailedPriceModelResult.createFailedResult(underlyingPriceResponse.error());
-        }
-
-        var impliedVolatilitySurfaceResponse = requestVolatilitySurface(option.underlyingInstrumentId(), valuationTime);
-        if (impliedVolatilitySurfaceResponse.status() == Status.ERROR) {
-            return FailedPriceModelResult.createFailedResult(impliedVolatilitySurfaceResponse.error());
-        }
-        var ivSurface = impliedVolatilitySurfaceResponse.impliedVolatilitySurfaceEntry().impliedVolatilitySurface();
-
-        var forwardPriceCurveResponse = requestForwardPriceCurve(option.underlyingInstrumentId(), valuationTime);
 
         double ttm = Black76.calculateTimeToMaturity(valuationTime, option);
         double strikePrice = option.strikePrice().getRealValue();
-        double spotPrice = underlyingPriceResponse.marketDataPrice().price().getRealValue();
-        double riskFreeRate = yieldCurveResponse.yieldCurveEntry().yieldCurve().getYield(ttm);
-        double impliedVolatility = ivSurface.getImpliedVolatility(ttm, strikePrice);
+        double spotPrice = underlyingPrice.price().getRealValue();
+        double riskFreeRate = yieldCurveCache.getYield(yieldCurve, ttm);
+        double impliedVolatility = getImpliedVolatility(impliedVolatilitySurface, gridCache, ttm, strikePrice);
         double dividendYield = parameters.dividendYield().getRealValue();
         double forwardPrice = spotPrice * Math.exp((riskFreeRate - dividendYield) * ttm);
-        if (forwardPriceCurveResponse.status() == Status.OK) {
-            forwardPrice = forwardPriceCurveResponse.forwardPriceCurveEntry().forwardPriceCurve().getForwardPrice(ttm);
+        if (forwardPriceCurve != null) {
+            forwardPrice = forwardPriceCurve.forwardPriceCurve().getForwardPrice(ttm);
         }
 
         return Black76.calculateOptionPrice(
@@ -119,45 +156,125 @@ public class OptionCalculator {
         );
     }
 
-    private MarketDataForwardPriceCurveResponse requestForwardPriceCurve(String underlyingInstrumentId, Timestamp valuationTime) {
-        var request = ImmutableMarketDataForwardPriceCurveRequest.builder()
-                .staticKey(ImmutableMarketDataForwardPriceCurveStaticKey.builder().instrumentId(underlyingInstrumentId).build())
-                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(valuationTime).build())
-                .timeFilter(MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR)
-                .build();
+    private static double getImpliedVolatility(MarketDataImpliedVolatilitySurface impliedVolatilitySurface,
+                                               ImpliedVolatilityGridCache gridCache,
+                                               double ttm,
+                                               double strikePrice) {
+        var grid = gridCache == null ? null : gridCache.getGrid(impliedVolatilitySurface);
+        if (grid != null && grid.contains(ttm, strikePrice)) {
+            return grid.getImpliedVolatility(ttm, strikePrice);
+        }
+        return impliedVolatilitySurface.impliedVolatilitySurface().getImpliedVolatility(ttm, strikePrice);
+    }
+
+    /**
+     * Tabulates every new surface over the strikes and times to maturity of the option chain it was built from.
+     */
+    private void tabulateSurfaces(OptionChainDataset optionChains, List<MarketDataImpliedVolatilitySurface> surfaces) {
+        Map<String, List<OptionInstrument>> underlyingIdToOptions = new HashMap<>();
+        optionChains.underlyingInstrumentToOptions().forEach((underlying, options) -> underlyingIdToOptions.put(underlying.instrumentId(), options));
+        for (var surface : surfaces) {
+            var options = underlyingIdToOptions.get(surface.staticKey().instrumentId());
+            if (options == null) {
+                continue;
+            }
+            double minTtm = Double.MAX_VALUE;
+            double maxTtm = 0;
+            double minStrike = Double.MAX_VALUE;
+            double maxStrike = -Double.MAX_VALUE;
+            for (var option : options) {
+                double ttm = calculateTimeToMaturity(optionChains.valuationTime(), option);
+                if (ttm < 0) {
+                    continue;
+                }
+                double strike = option.strikePrice().getRealValue();
+                minTtm = Math.min(minTtm, ttm);
+                maxTtm = Math.max(maxTtm, ttm);
+                minStrike = Math.min(minStrike, strike);
+                maxStrike = Math.max(maxStrike, strike);
+            }
+            if (minTtm <= maxTtm) {
+                getGridCache(surface.staticKey()).tabulate(surface, minTtm, maxTtm, minStrike, maxStrike);
+            }
+        }
+    }
 
-        return marketDataService.getForwardPriceCurve(request);
+    private static double calculateTimeToMaturity(Timestamp valuationTime, OptionInstrument option) {
+        return switch (option.priceModel()) {
+            case BLACK_76 -> Black76.calculateTimeToMaturity(valuationTime, option);
+            default -> BlackScholesMerton.calculateTimeToMaturity(valuationTime, option);
+        };
     }
 
-    private MarketDataImpliedVolatilitySurfaceResponse requestVolatilitySurface(String underlyingInstrumentId, Timestamp valuationTime) {
-        var request = ImmutableMarketDataImpliedVolatilitySurfaceRequest.builder()
-                .staticKey(ImmutableMarketDataImpliedVolatilitySurfaceStaticKey.builder().instrumentId(underlyingInstrumentId).build())
-                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(valuationTime).build())
-                .timeFilter(MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR)
-                .build();
+    private OptionInputs getInputs(OptionInstrument option) {
+        return instrumentIdToInputs.computeIfAbsent(option.instrumentId(), k -> resolveInputs(option));
+    }
 
-        return marketDataService.getImpliedVolatilitySurface(request);
+    private OptionInputs resolveInputs(OptionInstrument option) {
+        var parameters = (BlackScholesPriceModelParameters) option.priceModelParameters();
+        String underlyingInstrumentId = option.underlyingInstrumentId();
+        if (underlyingInstrumentId == null) {
+            return new OptionInputs(marketDataService.resolveYieldCurve(parameters.yieldCurveId()), null, null, null, null);
+        }
+        return switch (option.priceModel()) {
+            case BLACK_76 -> createInputs(
+                    parameters.yieldCurveId(),
+                    underlyingInstrumentId,
+                    marketDataService.resolveImpliedVolatilitySurface(underlyingInstrumentId),
+                    marketDataService.resolveForwardPriceCurve(underlyingInstrumentId)
+            );
+            default -> createInputs(
+                    parameters.yieldCurveId(),
+                    underlyingInstrumentId,
+                    marketDataService.resolveImpliedVolatilitySurface(option.instrumentId()),
+                    null
+            );
+        };
     }
 
-    private MarketDataYieldCurveResponse requestYieldCurve(String curveId, Timestamp valuationTime) {
-        var request = ImmutableMarketDataYieldCurveRequest.builder()
-                .staticKey(ImmutableMarketDataYieldCurveStaticKey.builder().curveId(curveId).build())
-                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(valuationTime).build())
-                .timeFilter(MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR)
-                .build();
+    private OptionInputs createInputs(String yieldCurveId,
+                                      String underlyingInstrumentId,
+                                      MarketDataHandle<MarketDataImpliedVolatilitySurface> impliedVolatilitySurface,
+                                      MarketDataHandle<MarketDataForwardPriceCurve> forwardPriceCurve) {
+        return new OptionInputs(
+                marketDataService.resolveYieldCurve(yieldCurveId),
+                marketDataService.resolvePrice(underlyingInstrumentId),
+                impliedVolatilitySurface,
+                forwardPriceCurve,
+                getGridCache(impliedVolatilitySurface)
+        );
+    }
+
+    /**
+     * Options priced off the same surface share its grid, null if grids are disabled.
+     */
+    private ImpliedVolatilityGridCache getGridCache(MarketDataHandle<MarketDataImpliedVolatilitySurface> impliedVolatilitySurface) {
+        if (!gridSettings.enabled()) {
+            return null;
+        }
+        return getGridCache(impliedVolatilitySurface.getStaticKey());
+    }
 
-        return marketDataService.getYieldCurve(request);
+    private ImpliedVolatilityGridCache getGridCache(StaticKey surfaceKey) {
+        return surfaceKeyToGridCache.computeIfAbsent(surfaceKey, k -> new ImpliedVolatilityGridCache(gridSettings));
     }
 
-    private MarketDataPriceResponse requestPrice(Instrument instrument, Timestamp valuationTime) {
-        if (instrument == null) {
-            return MarketDataPriceResponse.createErrorResponse("");
+    private static PriceModelResult createMissingDataResult(MarketDataHandle<?> handle) {
+        return FailedPriceModelResult.createFailedResult(String.format("No matching entry found: %s.", handle.getStaticKey()));
+    }
+
+    private record OptionInputs(MarketDataHandle<MarketDataYieldCurve> yieldCurve,
+                                MarketDataHandle<MarketDataPrice> underlyingPrice,
+                                MarketDataHandle<MarketDataImpliedVolatilitySurface> impliedVolatilitySurface,
+                                MarketDataHandle<MarketDataForwardPriceCurve> forwardPriceCurve,
+                                ImpliedVolatilityGridCache gridCache) {
+
+        long getVersion() {
+            return getVersion(yieldCurve) + getVersion(underlyingPrice) + getVersion(impliedVolatilitySurface) + getVersion(forwardPriceCurve);
+        }
+
+        private static long getVersion(MarketDataHandle<?> handle) {
+            return handle == null ? 0 : handle.getVersion();
         }
-        var request = ImmutableMarketDataPriceRequest.builder()
-                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrument.instrumentId()).build())
-                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(valuationTime).build())
-                .timeFilter(MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR)
-                .build();
-        return marketDataService.getMarketDataPrice(request);
     }
 }
@@ -2,20 +2,20 @@ package com.herron.exchange.pricingengine.server.theoretical.fixedincome.bonds;
 
 import com.herron.exchange.common.api.common.api.pricing.PriceModelResult;
 import com.herron.exchange.common.api.common.api.referencedata.instruments.BondInstrument;
-import com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter;
-import com.herron.exchange.common.api.common.enums.Status;
 import com.herron.exchange.common.api.common.messages.common.Timestamp;
-import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
-import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataYieldCurveRequest;
-import com.herron.exchange.common.api.common.messages.marketdata.response.MarketDataYieldCurveResponse;
-import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataYieldCurveStaticKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataYieldCurve;
 import com.herron.exchange.common.api.common.messages.pricing.FailedPriceModelResult;
+import com.herron.exchange.pricingengine.server.marketdata.MarketDataHandle;
 import com.herron.exchange.pricingengine.server.marketdata.MarketDataService;
 import com.herron.exchange.quantlib.pricemodels.fixedincome.bonds.BondDiscountingPriceModel;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class BondPriceCalculator {
 
     private final MarketDataService marketDataService;
+    private final Map<String, MarketDataHandle<MarketDataYieldCurve>> curveIdToHandle = new ConcurrentHashMap<>();
 
     public BondPriceCalculator(MarketDataService marketDataService) {
         this.marketDataService = marketDataService;
@@ -28,6 +28,17 @@ public class BondPriceCalculator {
         };
     }
 
+    /**
+     * Returns a value which changes whenever the yield curve the bond is priced with changes.
+     */
+    public long getInputVersion(BondInstrument instrument) {
+        String curveId = instrument.priceModelParameters().yieldCurveId();
+        if (!instrument.priceModelParameters().calculateWithCurve() || curveId == null) {
+            return 0;
+        }
+        return getYieldCurveHandle(curveId).getVersion();
+    }
+
     private PriceModelResult calculateWithDiscountModel(BondInstrument instrument, Timestamp valuationTime) {
         if (instrument.priceModelParameters().calculateWithCurve()) {
             return calculateWithCurve(instrument, valuationTime);
@@ -45,18 +56,16 @@ public class BondPriceCalculator {
             return FailedPriceModelResult.createFailedResult("CurveId is null.");
         }
 
-        var request = ImmutableMarketDataYieldCurveRequest.builder()
-                .staticKey(ImmutableMarketDataYieldCurveStaticKey.builder().curveId(curveId).build())
-                .timeFilter(MarketDataRequestTimeFilter.LATEST)
-                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.now()).build())
-                .build();
-
-        MarketDataYieldCurveResponse response = marketDataService.getYieldCurve(request);
-        if (response.status() == Status.ERROR || response.yieldCurveEntry() == null) {
-            return FailedPriceModelResult.createFailedResult("Market data error: " + response.error());
+        var handle = getYieldCurveHandle(curveId);
+        var yieldCurveEntry = handle.latest();
+        if (yieldCurveEntry == null) {
+            return FailedPriceModelResult.createFailedResult(String.format("Market data error: No matching entry found: %s.", handle.getStaticKey()));
         }
-        var yieldCurve = response.yieldCurveEntry().yieldCurve();
-        return BondDiscountingPriceModel.calculate(instrument, yieldCurve, valuationTime);
+        return BondDiscountingPriceModel.calculate(instrument, yieldCurveEntry.yieldCurve(), valuationTime);
+    }
+
+    private MarketDataHandle<MarketDataYieldCurve> getYieldCurveHandle(String curveId) {
+        return curveIdToHandle.computeIfAbsent(curveId, marketDataService::resolveYieldCurve);
     }
 
 }
@@ -0,0 +1,14 @@
+package com.herron.exchange.pricingengine.server.utils;
+
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+
+public class TimestampUtils {
+    private static final Timestamp EPOCH = Timestamp.from(0);
+
+    private TimestampUtils() {
+    }
+
+    public static long toEpochMs(Timestamp timestamp) {
+        return timestamp.timeBetweenMs(EPOCH);
+    }
+}
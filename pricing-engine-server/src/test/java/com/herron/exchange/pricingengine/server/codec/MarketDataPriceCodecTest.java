@@ -0,0 +1,74 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+import com.herron.exchange.common.api.common.enums.PriceType;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+import com.herron.exchange.pricingengine.server.publisher.RealTimePriceBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.herron.exchange.common.api.common.enums.PriceType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataPriceCodecTest {
+
+    @Test
+    void test_price_round_trip() {
+        var price = createPrice("instrumentId", 1_700_000_000_123L, 101.25, LAST_PRICE);
+        byte[] bytes = MarketDataPriceCodec.encode(price);
+
+        var decoder = new MarketDataPriceDecoder().wrapMessage(bytes);
+        assertEquals("instrumentId", decoder.instrumentId());
+        assertEquals(1_700_000_000_123L, decoder.timeOfEventMs());
+        assertEquals(101.25, decoder.price());
+        assertEquals(LAST_PRICE, decoder.priceType());
+        assertEquals(price, decoder.toMarketDataPrice());
+        assertEquals(MessageHeader.ENCODED_LENGTH + decoder.encodedLength(), bytes.length);
+    }
+
+    @Test
+    void test_batch_round_trip() {
+        var prices = List.of(
+                createPrice("first", 1L, 10.5, BID_PRICE),
+                createPrice("second-instrument-id", 2L, 11.75, THEORETICAL),
+                createPrice("third", 3L, 0.001, VWAP)
+        );
+        var batch = new RealTimePriceBatch(42, Timestamp.from(5L), prices);
+        byte[] bytes = RealTimePriceBatchCodec.encode(batch);
+
+        var decoder = new RealTimePriceBatchDecoder().wrap(bytes);
+        assertEquals(42, decoder.batchId());
+        assertEquals(5L, decoder.timeOfEventMs());
+        assertEquals(3, decoder.count());
+        assertEquals(batch, decoder.toBatch());
+        assertFalse(decoder.hasNext());
+    }
+
+    @Test
+    void test_empty_batch() {
+        var batch = new RealTimePriceBatch(0, Timestamp.from(0L), List.of());
+        var decoder = new RealTimePriceBatchDecoder().wrap(RealTimePriceBatchCodec.encode(batch));
+        assertEquals(0, decoder.count());
+        assertFalse(decoder.hasNext());
+    }
+
+    @Test
+    void test_rejects_other_template() {
+        byte[] bytes = MarketDataPriceCodec.encode(createPrice("instrumentId", 1L, 1, LAST_PRICE));
+        assertThrows(IllegalArgumentException.class, () -> new RealTimePriceBatchDecoder().wrap(bytes));
+    }
+
+    private MarketDataPrice createPrice(String instrumentId, long timeOfEventMs, double price, PriceType priceType) {
+        return ImmutableMarketDataPrice.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrumentId).build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(timeOfEventMs)).build())
+                .price(Price.create(price))
+                .priceType(priceType)
+                .build();
+    }
+}
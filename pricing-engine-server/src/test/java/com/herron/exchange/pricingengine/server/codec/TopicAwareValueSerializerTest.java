@@ -0,0 +1,113 @@
+package com.herron.exchange.pricingengine.server.codec;
+
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+import com.herron.exchange.pricingengine.server.publisher.BatchingPricePublisher;
+import com.herron.exchange.pricingengine.server.publisher.RealTimePriceBatch;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.herron.exchange.common.api.common.enums.PriceType.LAST_PRICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopicAwareValueSerializerTest {
+    private static final String BINARY_TOPIC = "real-time-prices";
+    private static final String JSON_TOPIC = "previous-settlement-price-data";
+    private final TopicAwareValueSerializer serializer = new TopicAwareValueSerializer();
+    private final BlockingQueue<SentRecord> sentRecords = new LinkedBlockingQueue<>();
+    private BatchingPricePublisher publisher;
+
+    @AfterEach
+    void after() {
+        publisher.stop();
+        serializer.close();
+    }
+
+    @Test
+    void test_published_batch_is_binary_and_marked_on_binary_topic() throws InterruptedException {
+        serializer.configure(Map.of(TopicAwareValueSerializer.BINARY_TOPICS_CONFIG, List.of(BINARY_TOPIC)), false);
+        publisher = createPublisher(BINARY_TOPIC);
+        publisher.init();
+        publisher.publish(createPrice("first", 1L, 10.5));
+        publisher.publish(createPrice("second", 2L, 11.25));
+
+        var sent = sentRecords.poll(5, TimeUnit.SECONDS);
+        assertNotNull(sent);
+        var contentType = sent.headers().lastHeader(TopicAwareValueSerializer.CONTENT_TYPE_HEADER);
+        assertNotNull(contentType);
+        assertEquals(TopicAwareValueSerializer.BINARY_CONTENT_TYPE, new String(contentType.value(), StandardCharsets.UTF_8));
+
+        var batch = new RealTimePriceBatchDecoder().wrap(sent.value()).toBatch();
+        assertEquals(0, batch.batchId());
+        assertEquals(List.of(createPrice("first", 1L, 10.5), createPrice("second", 2L, 11.25)), batch.prices());
+    }
+
+    @Test
+    void test_published_batch_is_not_marked_on_json_topic() throws InterruptedException {
+        serializer.configure(Map.of(TopicAwareValueSerializer.BINARY_TOPICS_CONFIG, BINARY_TOPIC), false);
+        publisher = createPublisher(JSON_TOPIC);
+        publisher.init();
+        publisher.publish(createPrice("first", 1L, 10.5));
+        publisher.publish(createPrice("second", 2L, 11.25));
+
+        var sent = sentRecords.poll(5, TimeUnit.SECONDS);
+        assertNotNull(sent);
+        assertNull(sent.headers().lastHeader(TopicAwareValueSerializer.CONTENT_TYPE_HEADER));
+    }
+
+    @Test
+    void test_binary_is_never_written_without_headers() {
+        serializer.configure(Map.of(TopicAwareValueSerializer.BINARY_TOPICS_CONFIG, BINARY_TOPIC), false);
+        publisher = createPublisher(BINARY_TOPIC);
+        var batch = new RealTimePriceBatch(0, Timestamp.from(0L), List.of(createPrice("first", 1L, 10.5)));
+        assertFalse(isBinary(serializer.serialize(BINARY_TOPIC, batch)));
+    }
+
+    private BatchingPricePublisher createPublisher(String topic) {
+        return new BatchingPricePublisher(batch -> {
+            Headers headers = new RecordHeaders();
+            byte[] value = serializer.serialize(topic, headers, batch);
+            sentRecords.add(new SentRecord(headers, value));
+            return CompletableFuture.completedFuture(null);
+        }, 2, Duration.ofSeconds(30), 16);
+    }
+
+    private static boolean isBinary(byte[] value) {
+        if (value == null || value.length < MessageHeader.ENCODED_LENGTH) {
+            return false;
+        }
+        try {
+            new RealTimePriceBatchDecoder().wrap(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static MarketDataPrice createPrice(String instrumentId, long timeOfEventMs, double price) {
+        return ImmutableMarketDataPrice.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrumentId).build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(timeOfEventMs)).build())
+                .price(Price.create(price))
+                .priceType(LAST_PRICE)
+                .build();
+    }
+
+    private record SentRecord(Headers headers, byte[] value) {
+    }
+}
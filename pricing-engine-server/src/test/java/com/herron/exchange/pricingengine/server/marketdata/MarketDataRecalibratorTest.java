@@ -0,0 +1,153 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+import com.herron.exchange.common.api.common.api.referencedata.instruments.OptionInstrument;
+import com.herron.exchange.common.api.common.enums.PriceType;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static com.herron.exchange.common.api.common.enums.PriceType.LAST_PRICE;
+import static com.herron.exchange.common.api.common.enums.PriceType.THEORETICAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataRecalibratorTest {
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 2, 10, 0);
+    private final MarketDataService marketDataService = new MarketDataService(null);
+    private final List<List<OptionInstrument>> calibratedChains = new ArrayList<>();
+    private int nrOfFailedCalibrations = 0;
+    private int minute = 0;
+    private final MarketDataRecalibrator recalibrator = new MarketDataRecalibrator(marketDataService, 0.01, Duration.ofHours(1), this::calibrate);
+
+    @Test
+    void test_price_change_above_threshold_marks_underlying_dirty() {
+        addPrices(Map.of("underlying", 100.0, "call", 5.0, "index", 50.0, "index-call", 50.0));
+        recalibrator.addOptions(List.of(createOption("call", "underlying"), createOption("index-call", "index")));
+
+        onPriceChange(Map.of("underlying", 100.5, "index-call", 50.4, "other", 1.0));
+        assertEquals(Set.of(), recalibrator.getDirtyUnderlyingIds());
+
+        onPriceChange(Map.of("underlying", 102.0));
+        assertEquals(Set.of("underlying"), recalibrator.getDirtyUnderlyingIds());
+
+        onPriceChange(Map.of("index-call", 49.0));
+        assertEquals(Set.of("underlying", "index"), recalibrator.getDirtyUnderlyingIds());
+    }
+
+    @Test
+    void test_recalibrate_rebuilds_only_dirty_underlyings() {
+        addPrices(Map.of("underlying", 100.0, "call", 5.0, "put", 4.0, "index", 50.0, "index-call", 50.0));
+        var call = createOption("call", "underlying");
+        var put = createOption("put", "underlying");
+        recalibrator.addOptions(List.of(call, put, createOption("index-call", "index")));
+
+        recalibrator.recalibrate();
+        assertEquals(List.of(), calibratedChains);
+
+        onPriceChange(Map.of("call", 6.0));
+        recalibrator.recalibrate();
+        assertEquals(1, calibratedChains.size());
+        assertEquals(Set.of(call, put), Set.copyOf(calibratedChains.get(0)));
+        assertEquals(Set.of(), recalibrator.getDirtyUnderlyingIds());
+
+        onPriceChange(Map.of("call", 6.01));
+        assertEquals(Set.of(), recalibrator.getDirtyUnderlyingIds());
+    }
+
+    @Test
+    void test_failed_recalibration_keeps_underlyings_dirty() {
+        addPrices(Map.of("underlying", 100.0, "call", 5.0));
+        var call = createOption("call", "underlying");
+        recalibrator.addOptions(List.of(call));
+        onPriceChange(Map.of("underlying", 110.0));
+
+        nrOfFailedCalibrations = 1;
+        recalibrator.recalibrate();
+        assertEquals(Set.of("underlying"), recalibrator.getDirtyUnderlyingIds());
+        assertEquals(List.of(), calibratedChains);
+
+        recalibrator.recalibrate();
+        assertEquals(List.of(List.of(call)), calibratedChains);
+        assertEquals(Set.of(), recalibrator.getDirtyUnderlyingIds());
+    }
+
+    @Test
+    void test_theoretical_price_does_not_trigger_rebuild() {
+        addPrices(Map.of("underlying", 100.0, "call", 5.0));
+        var call = createOption("call", "underlying");
+        recalibrator.addOptions(List.of(call));
+
+        var theoreticalPrice = createPrice("call", TIME.plusMinutes(minute++), 8.0, THEORETICAL);
+        marketDataService.addEntry(theoreticalPrice);
+        marketDataService.updateLivePrice(marketDataService.resolvePrice("call"), theoreticalPrice);
+        recalibrator.onPriceChange(Set.of(theoreticalPrice.staticKey()), marketDataService.snapshot());
+        assertEquals(Set.of(), recalibrator.getDirtyUnderlyingIds());
+
+        recalibrator.recalibrate();
+        assertEquals(List.of(), calibratedChains);
+    }
+
+    private Map<String, Double> calibrate(List<OptionInstrument> options) {
+        if (nrOfFailedCalibrations > 0) {
+            nrOfFailedCalibrations--;
+            throw new IllegalStateException("Calibration failed.");
+        }
+        calibratedChains.add(options);
+        Set<String> instrumentIds = new HashSet<>();
+        for (var option : options) {
+            instrumentIds.add(option.instrumentId());
+            instrumentIds.add(option.underlyingInstrumentId());
+        }
+        Map<String, Double> instrumentIdToPrice = new HashMap<>();
+        marketDataService.getMarketDataPrices(instrumentIds, Timestamp.now())
+                .forEach((instrumentId, price) -> instrumentIdToPrice.put(instrumentId, price.price().getRealValue()));
+        return instrumentIdToPrice;
+    }
+
+    private void onPriceChange(Map<String, Double> instrumentIdToPrice) {
+        addPrices(instrumentIdToPrice);
+        Set<StaticKey> changedKeys = new HashSet<>();
+        instrumentIdToPrice.keySet().forEach(instrumentId -> changedKeys.add(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrumentId).build()));
+        recalibrator.onPriceChange(changedKeys, marketDataService.snapshot());
+    }
+
+    private void addPrices(Map<String, Double> instrumentIdToPrice) {
+        var time = TIME.plusMinutes(minute++);
+        List<MarketDataPrice> prices = new ArrayList<>();
+        instrumentIdToPrice.forEach((instrumentId, price) -> prices.add(createPrice(instrumentId, time, price, LAST_PRICE)));
+        marketDataService.addEntries(prices);
+    }
+
+    private static MarketDataPrice createPrice(String instrumentId, LocalDateTime time, double price, PriceType priceType) {
+        return ImmutableMarketDataPrice.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrumentId).build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(time)).build())
+                .price(Price.create(price))
+                .priceType(priceType)
+                .build();
+    }
+
+    private static OptionInstrument createOption(String instrumentId, String underlyingInstrumentId) {
+        return (OptionInstrument) Proxy.newProxyInstance(
+                OptionInstrument.class.getClassLoader(),
+                new Class<?>[]{OptionInstrument.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "instrumentId" -> instrumentId;
+                    case "underlyingInstrumentId" -> underlyingInstrumentId;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> instrumentId;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+}
@@ -0,0 +1,117 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataRequest;
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+import com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataPriceRequest;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static com.herron.exchange.common.api.common.enums.PriceType.LAST_PRICE;
+
+/**
+ * Contention benchmark of the repository implementations, run with the main method.
+ * One writer adds an entry every millisecond while the readers look up entries with MATCH_OR_FIRST_PRIOR as fast as they
+ * can. Reports the total reader throughput per implementation and number of reader threads.
+ */
+public class MarketDataRepositoryBenchmark {
+    private static final int[] NR_OF_READERS = {1, 8, 32};
+    private static final int NR_OF_DAYS = 30;
+    private static final int ENTRIES_PER_DAY = 100;
+    private static final int NR_OF_REQUESTS = 1024;
+    private static final long WARMUP_MS = 2_000;
+    private static final long MEASUREMENT_MS = 5_000;
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private static final StaticKey STATIC_KEY = ImmutableMarketDataPriceStaticKey.builder().instrumentId("instrumentId").build();
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int nrOfReaders : NR_OF_READERS) {
+            run("synchronized", SynchronizedMarketDataRepository::new, nrOfReaders);
+            run("copy-on-write", CopyOnWriteMarketDataRepository::new, nrOfReaders);
+        }
+    }
+
+    private static void run(String name, Function<StaticKey, MarketDataRepository> factory, int nrOfReaders) throws InterruptedException {
+        var repository = factory.apply(STATIC_KEY);
+        for (int day = 0; day < NR_OF_DAYS; day++) {
+            for (int i = 0; i < ENTRIES_PER_DAY; i++) {
+                repository.addEntry(createEntry(START_TIME.plusDays(day).plusMinutes(i)));
+            }
+        }
+        var requests = createRequests();
+
+        var isRunning = new AtomicBoolean(true);
+        var reads = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int reader = 0; reader < nrOfReaders; reader++) {
+            threads.add(new Thread(() -> {
+                int index = 0;
+                while (isRunning.get()) {
+                    sink = repository.getEntry(requests.get(index++ & (NR_OF_REQUESTS - 1)));
+                    reads.increment();
+                }
+            }));
+        }
+        threads.add(new Thread(() -> {
+            var time = START_TIME.plusDays(NR_OF_DAYS);
+            while (isRunning.get()) {
+                time = time.plusNanos(1_000);
+                repository.addEntry(createEntry(time));
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }));
+
+        threads.forEach(Thread::start);
+        Thread.sleep(WARMUP_MS);
+        long readsBefore = reads.sum();
+        long start = System.nanoTime();
+        Thread.sleep(MEASUREMENT_MS);
+        long readsAfter = reads.sum();
+        long elapsedNanos = System.nanoTime() - start;
+        isRunning.set(false);
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        double readsPerSecond = (readsAfter - readsBefore) * 1e9 / elapsedNanos;
+        System.out.printf("%-14s readers=%-3d reads/s=%,.0f%n", name, nrOfReaders, readsPerSecond);
+    }
+
+    private static List<MarketDataRequest> createRequests() {
+        var random = new Random(42);
+        List<MarketDataRequest> requests = new ArrayList<>();
+        for (int i = 0; i < NR_OF_REQUESTS; i++) {
+            var time = START_TIME.plusDays(random.nextInt(NR_OF_DAYS)).plusMinutes(random.nextInt(ENTRIES_PER_DAY)).plusSeconds(30);
+            requests.add(ImmutableMarketDataPriceRequest.builder()
+                    .staticKey(STATIC_KEY)
+                    .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(time)).build())
+                    .timeFilter(MarketDataRequestTimeFilter.MATCH_OR_FIRST_PRIOR)
+                    .build());
+        }
+        return requests;
+    }
+
+    private static MarketDataEntry createEntry(LocalDateTime time) {
+        return ImmutableMarketDataPrice.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId("instrumentId").build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(time)).build())
+                .price(Price.create(100))
+                .priceType(LAST_PRICE)
+                .build();
+    }
+}
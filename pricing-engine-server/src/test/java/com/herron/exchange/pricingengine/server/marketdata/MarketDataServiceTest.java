@@ -0,0 +1,204 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.StaticKey;
+import com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter;
+import com.herron.exchange.common.api.common.enums.PriceType;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataPriceRequest;
+import com.herron.exchange.common.api.common.messages.marketdata.requests.MarketDataPriceRequest;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+import com.herron.exchange.pricingengine.server.marketdata.journal.MarketDataJournal;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.herron.exchange.common.api.common.enums.PriceType.LAST_PRICE;
+import static com.herron.exchange.common.api.common.enums.PriceType.THEORETICAL;
+import static com.herron.exchange.common.api.common.enums.Status.ERROR;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataServiceTest {
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 2, 10, 0);
+
+    @Test
+    void test_pinned_snapshot_is_not_affected_by_later_writes() {
+        var marketDataService = new MarketDataService(null);
+        marketDataService.addEntry(createEntry("A", 1));
+        var snapshot = marketDataService.snapshot();
+
+        marketDataService.addEntry(createEntry("A", 2));
+        marketDataService.addEntry(createEntry("B", 3));
+
+        assertEquals(1, snapshot.getMarketDataPrice(createRequest("A")).marketDataPrice().price().getRealValue());
+        assertEquals(ERROR, snapshot.getMarketDataPrice(createRequest("B")).status());
+        assertEquals(2, marketDataService.getMarketDataPrice(createRequest("A")).marketDataPrice().price().getRealValue());
+        assertEquals(3, marketDataService.getMarketDataPrice(createRequest("B")).marketDataPrice().price().getRealValue());
+    }
+
+    @Test
+    void test_batch_is_published_in_one_epoch() {
+        var marketDataService = new MarketDataService(null);
+        long epoch = marketDataService.snapshot().getEpoch();
+        marketDataService.addEntries(List.of(createEntry("A", 1), createEntry("B", 2)));
+
+        var snapshot = marketDataService.snapshot();
+        assertEquals(epoch + 1, snapshot.getEpoch());
+        assertEquals(1, snapshot.getMarketDataPrice(createRequest("A")).marketDataPrice().price().getRealValue());
+        assertEquals(2, snapshot.getMarketDataPrice(createRequest("B")).marketDataPrice().price().getRealValue());
+    }
+
+    @Test
+    void test_handle_reads_latest_and_as_of_entries() {
+        var marketDataService = new MarketDataService(null);
+        var handle = marketDataService.resolvePrice("A");
+        assertNull(handle.latest());
+        assertEquals(0, handle.getVersion());
+
+        marketDataService.addEntries(List.of(createEntry("A", TIME, 1), createEntry("A", TIME.plusMinutes(1), 2)));
+        var timeComponentKey = ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(TIME.plusSeconds(30))).build();
+        assertEquals(2, handle.latest().price().getRealValue());
+        assertEquals(1, handle.asOf(timeComponentKey).price().getRealValue());
+        assertEquals(2, handle.getVersion());
+        assertEquals(marketDataService.getVersion(handle.getStaticKey()), handle.getVersion());
+        assertSame(handle.latest(), marketDataService.resolvePrice("A").latest());
+    }
+
+    @Test
+    void test_live_price_is_read_before_stored_prices() {
+        var marketDataService = new MarketDataService(null);
+        marketDataService.addEntry(createEntry("A", TIME, 1));
+        var handle = marketDataService.resolvePrice("A");
+        long version = handle.getVersion();
+
+        marketDataService.updateLivePrice(handle, createEntry("A", TIME.plusHours(1), 2));
+        assertEquals(2, handle.latest().price().getRealValue());
+        assertEquals(2, marketDataService.getMarketDataPrice(createRequest("A")).marketDataPrice().price().getRealValue());
+        assertTrue(handle.getVersion() > version);
+        assertEquals(marketDataService.getVersion(handle.getStaticKey()), handle.getVersion());
+
+        var beforeLivePrice = ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(TIME.plusMinutes(30))).build();
+        assertEquals(1, handle.asOf(beforeLivePrice).price().getRealValue());
+        assertEquals(1, marketDataService.snapshot().getTimeSeries(handle.getStaticKey()).size());
+    }
+
+    @Test
+    void test_theoretical_price_is_not_a_live_price() {
+        var marketDataService = new MarketDataService(null);
+        marketDataService.addEntry(createEntry("A", TIME, 1));
+        var handle = marketDataService.resolvePrice("A");
+        long version = handle.getVersion();
+
+        marketDataService.updateLivePrice(handle, createEntry("A", TIME.plusHours(1), 2, THEORETICAL));
+        assertEquals(1, handle.latest().price().getRealValue());
+        assertEquals(1, marketDataService.getMarketDataPrices(List.of("A"), Timestamp.from(TIME.plusHours(1))).get("A").price().getRealValue());
+        assertEquals(version, handle.getVersion());
+    }
+
+    @Test
+    void test_bulk_price_lookup_returns_match_or_first_prior() {
+        var marketDataService = new MarketDataService(null);
+        marketDataService.addEntries(List.of(
+                createEntry("A", TIME, 1),
+                createEntry("A", TIME.plusMinutes(2), 2),
+                createEntry("B", TIME.plusMinutes(2), 3)
+        ));
+
+        var prices = marketDataService.getMarketDataPrices(List.of("A", "B", "C"), Timestamp.from(TIME.plusMinutes(1)));
+        assertEquals(1, prices.size());
+        assertEquals(1, prices.get("A").price().getRealValue());
+
+        prices = marketDataService.getMarketDataPrices(List.of("A", "B"), Timestamp.from(TIME.plusMinutes(2)));
+        assertEquals(2, prices.get("A").price().getRealValue());
+        assertEquals(3, prices.get("B").price().getRealValue());
+    }
+
+    @Test
+    void test_listeners_are_notified_of_subscribed_changes() throws InterruptedException {
+        var marketDataService = new MarketDataService(null);
+        try {
+            var handle = marketDataService.resolvePrice("A");
+            BlockingQueue<Set<StaticKey>> keyNotifications = new LinkedBlockingQueue<>();
+            BlockingQueue<Set<StaticKey>> typeNotifications = new LinkedBlockingQueue<>();
+            marketDataService.subscribe(List.of(handle.getStaticKey()), (changedKeys, snapshot) -> keyNotifications.add(changedKeys));
+            var subscription = marketDataService.subscribe(MarketDataEntryType.PRICE, (changedKeys, snapshot) -> typeNotifications.add(changedKeys));
+
+            marketDataService.addEntries(List.of(createEntry("A", 1), createEntry("B", 2)));
+            assertEquals(Set.of(handle.getStaticKey()), keyNotifications.poll(5, TimeUnit.SECONDS));
+            var changedKeys = new HashSet<>(typeNotifications.poll(5, TimeUnit.SECONDS));
+            while (changedKeys.size() < 2) {
+                changedKeys.addAll(typeNotifications.poll(5, TimeUnit.SECONDS));
+            }
+            assertEquals(2, changedKeys.size());
+
+            subscription.close();
+            marketDataService.updateLivePrice(handle, createEntry("A", TIME.plusHours(1), 3));
+            assertEquals(Set.of(handle.getStaticKey()), keyNotifications.poll(5, TimeUnit.SECONDS));
+            assertTrue(typeNotifications.isEmpty());
+        } finally {
+            marketDataService.stop();
+        }
+    }
+
+    @Test
+    void test_compact_applies_retention_per_entry_type() {
+        var marketDataService = new MarketDataService(null, Map.of(MarketDataEntryType.PRICE, new RetentionPolicy(0, 2)), MarketDataJournal.NONE);
+        marketDataService.addEntries(List.of(
+                createEntry("A", TIME, 1),
+                createEntry("A", TIME.plusMinutes(1), 2),
+                createEntry("A", TIME.plusMinutes(2), 3)
+        ));
+        var snapshot = marketDataService.snapshot();
+
+        assertEquals(1, marketDataService.compact(TIME.toLocalDate()));
+        assertEquals(0, marketDataService.compact(TIME.toLocalDate()));
+        assertEquals(2, marketDataService.snapshot().getTimeSeries(createRequest("A").staticKey()).size());
+        assertEquals(3, snapshot.getTimeSeries(createRequest("A").staticKey()).size());
+        assertEquals(2, (long) marketDataService.getNrOfEntries().get(MarketDataEntryType.PRICE));
+        assertTrue(marketDataService.getEstimatedHeapUsage().get(MarketDataEntryType.PRICE) > 0);
+    }
+
+    @Test
+    void test_retention_counts_business_days() {
+        var monday = LocalDate.of(2024, 1, 8);
+        long retainFrom = new RetentionPolicy(2, 0).getRetainFromEpochNanos(monday);
+        assertEquals(MarketDataTimeSeries.toEpochNanos(LocalDate.of(2024, 1, 5), LocalTime.MIDNIGHT), retainFrom);
+    }
+
+    private static MarketDataPriceRequest createRequest(String instrumentId) {
+        return ImmutableMarketDataPriceRequest.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrumentId).build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(TIME)).build())
+                .timeFilter(MarketDataRequestTimeFilter.LATEST)
+                .build();
+    }
+
+    private static MarketDataPrice createEntry(String instrumentId, double price) {
+        return createEntry(instrumentId, TIME, price);
+    }
+
+    private static MarketDataPrice createEntry(String instrumentId, LocalDateTime time, double price) {
+        return createEntry(instrumentId, time, price, LAST_PRICE);
+    }
+
+    private static MarketDataPrice createEntry(String instrumentId, LocalDateTime time, double price, PriceType priceType) {
+        return ImmutableMarketDataPrice.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrumentId).build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(time)).build())
+                .price(Price.create(price))
+                .priceType(priceType)
+                .build();
+    }
+}
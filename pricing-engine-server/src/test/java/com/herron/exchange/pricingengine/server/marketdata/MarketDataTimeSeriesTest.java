@@ -0,0 +1,115 @@
+package com.herron.exchange.pricingengine.server.marketdata;
+
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataEntry;
+import com.herron.exchange.common.api.common.api.marketdata.MarketDataRequest;
+import com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.requests.ImmutableMarketDataPriceRequest;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static com.herron.exchange.common.api.common.enums.MarketDataRequestTimeFilter.*;
+import static com.herron.exchange.common.api.common.enums.PriceType.LAST_PRICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataTimeSeriesTest {
+    private static final LocalDateTime DAY_1 = LocalDateTime.of(2024, 1, 2, 10, 0);
+    private static final LocalDateTime DAY_2 = LocalDateTime.of(2024, 1, 3, 10, 0);
+
+    @Test
+    void test_latest_returns_newest_entry() {
+        var timeSeries = MarketDataTimeSeries.EMPTY
+                .add(createEntry(DAY_2, 3))
+                .add(createEntry(DAY_1, 1))
+                .add(createEntry(DAY_1.plusHours(1), 2));
+        assertEquals(3, price(timeSeries.getEntry(createRequest(DAY_1, LATEST))));
+        assertNull(MarketDataTimeSeries.EMPTY.getEntry(createRequest(DAY_1, LATEST)));
+    }
+
+    @Test
+    void test_match_or_first_prior() {
+        var timeSeries = MarketDataTimeSeries.EMPTY
+                .add(createEntry(DAY_1, 1))
+                .add(createEntry(DAY_1.plusHours(1), 2))
+                .add(createEntry(DAY_2, 3));
+        assertNull(timeSeries.getEntry(createRequest(DAY_1.minusSeconds(1), MATCH_OR_FIRST_PRIOR)));
+        assertEquals(1, price(timeSeries.getEntry(createRequest(DAY_1, MATCH_OR_FIRST_PRIOR))));
+        assertEquals(2, price(timeSeries.getEntry(createRequest(DAY_1.plusHours(5), MATCH_OR_FIRST_PRIOR))));
+        assertEquals(3, price(timeSeries.getEntry(createRequest(DAY_2.plusDays(10), MATCH_OR_FIRST_PRIOR))));
+    }
+
+    @Test
+    void test_match_date_and_time() {
+        var timeSeries = MarketDataTimeSeries.EMPTY
+                .add(createEntry(DAY_1, 1))
+                .add(createEntry(DAY_1.plusHours(1), 2));
+        assertEquals(2, price(timeSeries.getEntry(createRequest(DAY_1.plusHours(1), MATCH_DATE_AND_TIME))));
+        assertNull(timeSeries.getEntry(createRequest(DAY_1.plusMinutes(1), MATCH_DATE_AND_TIME)));
+        assertEquals(1, price(timeSeries.getEntry(createRequest(DAY_1.plusHours(3), MATCH_DATE))));
+        assertNull(timeSeries.getEntry(createRequest(DAY_2, MATCH_DATE)));
+    }
+
+    @Test
+    void test_same_time_replaces_entry() {
+        var timeSeries = MarketDataTimeSeries.EMPTY
+                .add(createEntry(DAY_1, 1))
+                .add(createEntry(DAY_1, 2));
+        assertEquals(1, timeSeries.size());
+        assertEquals(2, price(timeSeries.getEntry(createRequest(DAY_1, LATEST))));
+    }
+
+    @Test
+    void test_append_does_not_change_older_series() {
+        var first = MarketDataTimeSeries.EMPTY.add(createEntry(DAY_1, 1));
+        var second = first.add(createEntry(DAY_1.plusHours(1), 2));
+        var branched = first.add(createEntry(DAY_1.plusHours(2), 3));
+        assertEquals(1, first.size());
+        assertEquals(1, price(first.getEntry(createRequest(DAY_2, LATEST))));
+        assertEquals(2, price(second.getEntry(createRequest(DAY_2, LATEST))));
+        assertEquals(3, price(branched.getEntry(createRequest(DAY_2, LATEST))));
+    }
+
+    @Test
+    void test_retain_evicts_old_entries_and_keeps_newest() {
+        var timeSeries = MarketDataTimeSeries.EMPTY
+                .add(createEntry(DAY_1, 1))
+                .add(createEntry(DAY_1.plusHours(1), 2))
+                .add(createEntry(DAY_2, 3));
+        var retained = timeSeries.retain(MarketDataTimeSeries.toEpochNanos(DAY_2.toLocalDate(), LocalTime.MIDNIGHT), 0);
+        assertEquals(1, retained.size());
+        assertEquals(3, price(retained.getEntry(createRequest(DAY_2, LATEST))));
+        assertEquals(3, timeSeries.size());
+
+        assertEquals(2, timeSeries.retain(Long.MIN_VALUE, 2).size());
+        assertEquals(1, timeSeries.retain(Long.MAX_VALUE, 0).size());
+        assertSame(timeSeries, timeSeries.retain(Long.MIN_VALUE, 0));
+    }
+
+    private static double price(MarketDataEntry entry) {
+        return ((MarketDataPrice) entry).price().getRealValue();
+    }
+
+    private static MarketDataRequest createRequest(LocalDateTime time, MarketDataRequestTimeFilter timeFilter) {
+        return ImmutableMarketDataPriceRequest.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId("instrumentId").build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(time)).build())
+                .timeFilter(timeFilter)
+                .build();
+    }
+
+    private static MarketDataEntry createEntry(LocalDateTime time, double price) {
+        return ImmutableMarketDataPrice.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId("instrumentId").build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(time)).build())
+                .price(Price.create(price))
+                .priceType(LAST_PRICE)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.herron.exchange.pricingengine.server.marketdata.journal;
+
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+import com.herron.exchange.pricingengine.server.marketdata.external.YieldCurvePoints;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.herron.exchange.common.api.common.enums.PriceType.SETTLEMENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryMappedMarketDataJournalTest {
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 2);
+    private static final int CAPACITY = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void test_replay_returns_appended_entries_and_checkpoints() {
+        var journal = new MemoryMappedMarketDataJournal(directory, DATE, CAPACITY);
+        assertEquals(JournalReplay.EMPTY, journal.replay());
+        journal.append(List.of(createPrice("A", 1.5), createPrice("B", 2.5)));
+        journal.checkpoint("SETTLEMENT");
+        journal.close();
+
+        var replay = new MemoryMappedMarketDataJournal(directory, DATE, CAPACITY).replay();
+        assertEquals(List.of(createPrice("A", 1.5), createPrice("B", 2.5)), replay.entries());
+        assertTrue(replay.hasCheckpoint("SETTLEMENT"));
+        assertEquals(JournalReplay.EMPTY, new MemoryMappedMarketDataJournal(directory, DATE.plusDays(1), CAPACITY).replay());
+    }
+
+    @Test
+    void test_replay_stops_at_torn_record() throws Exception {
+        var journal = new MemoryMappedMarketDataJournal(directory, DATE, CAPACITY);
+        journal.replay();
+        journal.append(List.of(createPrice("A", 1.5)));
+        int endOfFirstRecord = journal.getPosition();
+        journal.append(List.of(createPrice("B", 2.5)));
+        journal.close();
+
+        try (var file = new RandomAccessFile(directory.resolve("market-data-2024-01-02.journal").toFile(), "rw")) {
+            file.seek(endOfFirstRecord + 12);
+            file.writeByte(0x7F);
+        }
+
+        var reopened = new MemoryMappedMarketDataJournal(directory, DATE, CAPACITY);
+        assertEquals(List.of(createPrice("A", 1.5)), reopened.replay().entries());
+        reopened.append(List.of(createPrice("C", 3.5)));
+        reopened.close();
+        assertEquals(List.of(createPrice("A", 1.5), createPrice("C", 3.5)), new MemoryMappedMarketDataJournal(directory, DATE, CAPACITY).replay().entries());
+    }
+
+    @Test
+    void test_replay_returns_yield_curve_points() {
+        var journal = new MemoryMappedMarketDataJournal(directory, DATE, CAPACITY);
+        journal.replay();
+        journal.append(List.of(createPrice("A", 1.5)));
+        journal.appendYieldCurvePoints(List.of(new YieldCurvePoints("curve", DATE, new LocalDate[]{DATE.plusMonths(3), DATE.plusYears(1), DATE.plusYears(10)}, new double[]{4.1, 4.3, 4.05})));
+        journal.checkpoint("YIELD_CURVES");
+        journal.close();
+
+        var replay = new MemoryMappedMarketDataJournal(directory, DATE, CAPACITY).replay();
+        assertEquals(List.of(createPrice("A", 1.5)), replay.entries());
+        assertEquals(1, replay.yieldCurvePoints().size());
+        var points = replay.yieldCurvePoints().get(0);
+        assertEquals("curve", points.curveId());
+        assertEquals(DATE, points.startDate());
+        assertArrayEquals(new LocalDate[]{DATE.plusMonths(3), DATE.plusYears(1), DATE.plusYears(10)}, points.maturityDates());
+        assertArrayEquals(new double[]{4.1, 4.3, 4.05}, points.yields());
+        assertTrue(replay.hasCheckpoint("YIELD_CURVES"));
+    }
+
+    @Test
+    void test_replay_resolves_file_of_current_business_date() {
+        var businessDate = new AtomicReference<>(DATE);
+        var journal = new MemoryMappedMarketDataJournal(directory, businessDate::get, CAPACITY);
+        journal.replay();
+        journal.append(List.of(createPrice("A", 1.5)));
+        journal.checkpoint("SETTLEMENT");
+
+        businessDate.set(DATE.plusDays(1));
+        assertEquals(JournalReplay.EMPTY, journal.replay());
+        journal.append(List.of(createPrice("B", 2.5)));
+        journal.close();
+
+        assertEquals(List.of(createPrice("A", 1.5)), new MemoryMappedMarketDataJournal(directory, DATE, CAPACITY).replay().entries());
+        var replay = new MemoryMappedMarketDataJournal(directory, DATE.plusDays(1), CAPACITY).replay();
+        assertEquals(List.of(createPrice("B", 2.5)), replay.entries());
+        assertFalse(replay.hasCheckpoint("SETTLEMENT"));
+    }
+
+    @Test
+    void test_full_journal_skips_entries() {
+        var journal = new MemoryMappedMarketDataJournal(directory, DATE, 64);
+        journal.replay();
+        journal.append(List.of(createPrice("A", 1.5), createPrice("B", 2.5)));
+        assertEquals(List.of(createPrice("A", 1.5)), new MemoryMappedMarketDataJournal(directory, DATE, 64).replay().entries());
+    }
+
+    private static MarketDataPrice createPrice(String instrumentId, double price) {
+        return ImmutableMarketDataPrice.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId(instrumentId).build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(DATE)).build())
+                .price(Price.create(price))
+                .priceType(SETTLEMENT)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.herron.exchange.pricingengine.server.marketdata.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void test_index_round_trip_is_within_precision() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1_000, 123_456, 10_000_000_000L, Long.MAX_VALUE}) {
+            long highestEquivalentValue = LatencyHistogram.getHighestEquivalentValue(LatencyHistogram.toIndex(value));
+            assertTrue(highestEquivalentValue >= value);
+            assertTrue(highestEquivalentValue - value <= value / 16, "value " + value);
+        }
+        assertTrue(LatencyHistogram.toIndex(Long.MAX_VALUE) < 960);
+    }
+
+    @Test
+    void test_percentiles() {
+        var histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1000, histogram.getTotalCount());
+        assertEquals(1000, histogram.getMaxValue());
+        assertEquals(500, histogram.getValueAtPercentile(50), 500 / 16.0);
+        assertEquals(990, histogram.getValueAtPercentile(99), 990 / 16.0);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+}
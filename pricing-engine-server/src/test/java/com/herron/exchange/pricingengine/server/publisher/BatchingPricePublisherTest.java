@@ -0,0 +1,87 @@
+package com.herron.exchange.pricingengine.server.publisher;
+
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.marketdata.ImmutableDefaultTimeComponentKey;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.ImmutableMarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataPrice;
+import com.herron.exchange.common.api.common.messages.marketdata.statickeys.ImmutableMarketDataPriceStaticKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.herron.exchange.common.api.common.enums.PriceType.LAST_PRICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingPricePublisherTest {
+    private final BlockingQueue<RealTimePriceBatch> sentBatches = new LinkedBlockingQueue<>();
+    private BatchingPricePublisher publisher;
+
+    @AfterEach
+    void after() {
+        publisher.stop();
+    }
+
+    @Test
+    void test_full_batch_is_flushed_without_waiting_for_linger() throws InterruptedException {
+        publisher = createPublisher(3, Duration.ofSeconds(30), 16);
+        publisher.init();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            publisher.publish(createPrice(i));
+        }
+
+        var batch = sentBatches.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch);
+        assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(3, batch.prices().size());
+        assertEquals(0, batch.batchId());
+        assertEquals(createPrice(0), batch.prices().get(0));
+    }
+
+    @Test
+    void test_partial_batch_is_flushed_after_linger() throws InterruptedException {
+        publisher = createPublisher(100, Duration.ofMillis(50), 16);
+        publisher.init();
+        long startTime = System.nanoTime();
+        publisher.publish(createPrice(0));
+        publisher.publish(createPrice(1));
+
+        var batch = sentBatches.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch);
+        assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(2, batch.prices().size());
+        assertNull(sentBatches.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void test_publish_drops_prices_when_queue_is_full() {
+        publisher = createPublisher(100, Duration.ofMillis(50), 2);
+        publisher.publish(createPrice(0));
+        publisher.publish(createPrice(1));
+        publisher.publish(createPrice(2));
+        assertEquals(1, publisher.getMetrics().getDroppedPrices());
+        assertEquals(2, publisher.getMetrics().getPublishedPrices());
+    }
+
+    private BatchingPricePublisher createPublisher(int maxBatchSize, Duration linger, int queueCapacity) {
+        return new BatchingPricePublisher(batch -> {
+            sentBatches.add(batch);
+            return CompletableFuture.completedFuture(null);
+        }, maxBatchSize, linger, queueCapacity);
+    }
+
+    private static MarketDataPrice createPrice(long timeOfEventMs) {
+        return ImmutableMarketDataPrice.builder()
+                .staticKey(ImmutableMarketDataPriceStaticKey.builder().instrumentId("instrumentId").build())
+                .timeComponentKey(ImmutableDefaultTimeComponentKey.builder().timeOfEvent(Timestamp.from(timeOfEventMs)).build())
+                .price(Price.create(10))
+                .priceType(LAST_PRICE)
+                .build();
+    }
+}
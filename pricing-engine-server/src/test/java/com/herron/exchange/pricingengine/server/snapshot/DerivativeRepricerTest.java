@@ -0,0 +1,72 @@
+package com.herron.exchange.pricingengine.server.snapshot;
+
+import com.herron.exchange.common.api.common.api.referencedata.instruments.DerivativeInstrument;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DerivativeRepricerTest {
+    private final List<DerivativeInstrument> queuedRepricings = new ArrayList<>();
+    private final DerivativeRepricer repricer = new DerivativeRepricer(queuedRepricings::add);
+
+    @Test
+    void test_underlying_price_queues_each_derivative_once() {
+        var call = createDerivative("call", "underlying");
+        var put = createDerivative("put", "underlying");
+        repricer.addInstrument(call);
+        repricer.addInstrument(put);
+        repricer.addInstrument(createDerivative("call", "underlying"));
+        assertEquals(2, repricer.getNrOfDerivatives("underlying"));
+
+        repricer.onPriceUpdate("underlying");
+        assertEquals(2, queuedRepricings.size());
+        repricer.onPriceUpdate("call");
+        repricer.onPriceUpdate("other");
+        assertEquals(2, queuedRepricings.size());
+    }
+
+    @Test
+    void test_burst_of_underlying_prices_is_coalesced_until_repriced() {
+        var call = createDerivative("call", "underlying");
+        repricer.addInstrument(call);
+
+        repricer.onPriceUpdate("underlying");
+        repricer.onPriceUpdate("underlying");
+        repricer.onPriceUpdate("underlying");
+        assertEquals(List.of(call), queuedRepricings);
+
+        repricer.onRepricing(call);
+        repricer.onPriceUpdate("underlying");
+        assertEquals(List.of(call, call), queuedRepricings);
+        assertEquals(1, repricer.getNrOfRepricings());
+    }
+
+    @Test
+    void test_derivatives_of_other_underlyings_are_not_queued() {
+        repricer.addInstrument(createDerivative("call", "underlying"));
+        repricer.addInstrument(createDerivative("future", "index"));
+        repricer.onPriceUpdate("index");
+        assertEquals(1, queuedRepricings.size());
+        assertTrue(queuedRepricings.stream().allMatch(derivative -> derivative.instrumentId().equals("future")));
+    }
+
+    private static DerivativeInstrument createDerivative(String instrumentId, String underlyingInstrumentId) {
+        return (DerivativeInstrument) Proxy.newProxyInstance(
+                DerivativeInstrument.class.getClassLoader(),
+                new Class<?>[]{DerivativeInstrument.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "instrumentId" -> instrumentId;
+                    case "underlyingInstrumentId" -> underlyingInstrumentId;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> instrumentId;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+}
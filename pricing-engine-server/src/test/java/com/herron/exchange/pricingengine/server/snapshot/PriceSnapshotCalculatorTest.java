@@ -13,8 +13,10 @@ import com.herron.exchange.pricingengine.server.theoretical.fixedincome.bonds.Bo
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static com.herron.exchange.common.api.common.enums.CompoundingMethodEnum.COMPOUNDING;
 import static com.herron.exchange.common.api.common.enums.DayCountConventionEnum.ACT365;
@@ -23,8 +25,7 @@ import static com.herron.exchange.common.api.common.enums.OrderSideEnum.ASK;
 import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
 import static com.herron.exchange.common.api.common.enums.PriceType.*;
 import static com.herron.exchange.common.api.common.enums.TradeType.AUTOMATCH;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 class PriceSnapshotCalculatorTest {
 
@@ -57,6 +58,67 @@ class PriceSnapshotCalculatorTest {
         assertEquals(Price.create(11), marketDataPrice.price().scale(1));
     }
 
+    @Test
+    void test_vwap_window_override() {
+        var settings = new PriceSnapshotSettings(Duration.ZERO, Map.of("instrumentId", Duration.ofMinutes(1)), 60, ThrottleSettings.DEFAULT, Map.of(), Duration.ofSeconds(1));
+        calculator = new PriceSnapshotCalculator(buildInstrument(List.of(VWAP)), theoreticalPriceCalculator, settings);
+        calculator.updateAndGet(createTrade(1, 10, 10));
+        var marketDataPrice = calculator.updateAndGet(createTrade(70_000, 20, 10));
+        assertEquals(Price.create(20), marketDataPrice.price().scale(1));
+    }
+
+    @Test
+    void test_vwap_resets_at_utc_day_boundary() {
+        calculator = new PriceSnapshotCalculator(buildInstrument(List.of(VWAP)), theoreticalPriceCalculator);
+        calculator.updateAndGet(createTrade(0, 10, 10));
+        var marketDataPrice = calculator.updateAndGet(createTrade(86_390_000, 12, 10));
+        assertEquals(Price.create(11), marketDataPrice.price().scale(1));
+
+        marketDataPrice = calculator.updateAndGet(createTrade(86_400_000, 20, 10));
+        assertEquals(Price.create(20), marketDataPrice.price().scale(1));
+    }
+
+    @Test
+    void test_burst_then_quiet_flushes_last_price_at_end_of_window() {
+        calculator = new PriceSnapshotCalculator(buildInstrument(List.of(LAST_PRICE)), theoreticalPriceCalculator);
+        assertEquals(Price.create(10), calculator.updateAndGet(createTrade(1, 10, 10)).price());
+
+        assertNull(calculator.updateAndGet(createTrade(1_000, 11, 10)));
+        assertTrue(calculator.requestFlush());
+        assertNull(calculator.updateAndGet(createTrade(4_900, 12, 10)));
+        assertFalse(calculator.requestFlush());
+        assertEquals(101, calculator.getFlushDelayMs());
+
+        assertEquals(Price.create(12), calculator.flush().price());
+        assertNull(calculator.flush());
+        assertFalse(calculator.requestFlush());
+    }
+
+    @Test
+    void test_throttle_override_lookup() {
+        var productOverride = Map.of("product", new ThrottleSettings(Duration.ofSeconds(1), 0.001));
+        calculator = new PriceSnapshotCalculator(buildInstrument(List.of(LAST_PRICE)), theoreticalPriceCalculator, createSettings(productOverride));
+        assertEquals(1_000, calculator.getThrottleWindowMs());
+
+        var instrumentOverride = Map.of(
+                "product", new ThrottleSettings(Duration.ofSeconds(1), 0.001),
+                "instrumentId", new ThrottleSettings(Duration.ofSeconds(2), 0.001)
+        );
+        calculator = new PriceSnapshotCalculator(buildInstrument(List.of(LAST_PRICE)), theoreticalPriceCalculator, createSettings(instrumentOverride));
+        assertEquals(2_000, calculator.getThrottleWindowMs());
+
+        calculator = new PriceSnapshotCalculator(buildInstrument(List.of(LAST_PRICE)), theoreticalPriceCalculator, createSettings(Map.of("other", new ThrottleSettings(Duration.ofSeconds(1), 0.001))));
+        assertEquals(5_000, calculator.getThrottleWindowMs());
+    }
+
+    @Test
+    void test_reprice_is_skipped_unless_theoretical_price_is_selected() {
+        calculator = new PriceSnapshotCalculator(buildInstrument(List.of(LAST_PRICE, THEORETICAL)), theoreticalPriceCalculator);
+        calculator.updateAndGet(createTrade(1, 10, 10));
+        assertNull(calculator.reprice());
+        assertFalse(calculator.requestFlush());
+    }
+
     @Test
     void test_mid_bid_ask_price() {
         calculator = new PriceSnapshotCalculator(buildInstrument(List.of(MID_BID_ASK_PRICE)), theoreticalPriceCalculator);
@@ -81,6 +143,10 @@ class PriceSnapshotCalculatorTest {
         assertEquals(Price.create(10), marketDataPrice2.price().scale(1));
     }
 
+    private PriceSnapshotSettings createSettings(Map<String, ThrottleSettings> throttleOverrides) {
+        return new PriceSnapshotSettings(Duration.ZERO, Map.of(), 60, ThrottleSettings.DEFAULT, throttleOverrides, Duration.ofSeconds(1));
+    }
+
     private BondInstrument buildInstrument(List<PriceType> intradayPricePriority) {
         return ImmutableDefaultBondInstrument.builder()
                 .instrumentId("instrumentId")
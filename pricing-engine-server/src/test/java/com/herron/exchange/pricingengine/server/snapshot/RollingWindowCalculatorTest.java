@@ -0,0 +1,38 @@
+package com.herron.exchange.pricingengine.server.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingWindowCalculatorTest {
+
+    @Test
+    void test_vwap_within_window() {
+        var calculator = new RollingWindowCalculator(Duration.ofMinutes(1), 60);
+        calculator.update(0, 10, 1);
+        calculator.update(1_000, 20, 3);
+        assertEquals(18, calculator.getVwap(2_000));
+    }
+
+    @Test
+    void test_vwap_expires_old_trades() {
+        var calculator = new RollingWindowCalculator(Duration.ofMinutes(1), 60);
+        calculator.update(0, 10, 1);
+        calculator.update(30_000, 20, 1);
+        assertEquals(15, calculator.getVwap(30_000));
+        assertEquals(20, calculator.getVwap(61_000));
+        assertTrue(calculator.isEmpty(91_000));
+        assertEquals(0, calculator.getVwap(91_000));
+    }
+
+    @Test
+    void test_window_fully_expires_after_long_gap() {
+        var calculator = new RollingWindowCalculator(Duration.ofMinutes(1), 60);
+        calculator.update(0, 10, 1);
+        calculator.update(10 * 60_000, 30, 2);
+        assertEquals(30, calculator.getVwap(10 * 60_000));
+    }
+}
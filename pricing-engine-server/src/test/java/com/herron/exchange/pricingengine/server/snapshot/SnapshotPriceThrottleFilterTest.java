@@ -0,0 +1,41 @@
+package com.herron.exchange.pricingengine.server.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotPriceThrottleFilterTest {
+
+    @Test
+    void test_price_within_window_is_filtered() {
+        var filter = new SnapshotPriceThrottleFilter(Duration.ofSeconds(5), 0.001);
+        assertFalse(filter.filter(price(0, 100)));
+        assertTrue(filter.filter(price(4_900, 110)));
+        assertFalse(filter.filter(price(5_000, 110)));
+    }
+
+    @Test
+    void test_remaining_window_is_measured_from_last_published_price() {
+        var filter = new SnapshotPriceThrottleFilter(Duration.ofSeconds(5), 0.001);
+        assertEquals(5_000, filter.getRemainingWindowMs(0));
+        filter.filter(price(1_000, 100));
+        assertEquals(4_000, filter.getRemainingWindowMs(2_000));
+        assertEquals(100, filter.getRemainingWindowMs(5_900));
+    }
+
+    @Test
+    void test_price_rejected_after_window_waits_full_window() {
+        var filter = new SnapshotPriceThrottleFilter(Duration.ofSeconds(5), 0.01);
+        filter.filter(price(0, 100));
+        assertTrue(filter.filter(price(8_000, 100)));
+        assertEquals(5_000, filter.getRemainingWindowMs(8_000));
+    }
+
+    private static PriceSnapshotCalculator.PriceState price(long timeOfEventMs, double price) {
+        var priceState = new PriceSnapshotCalculator.PriceState(null);
+        priceState.set(timeOfEventMs, PriceSnapshotCalculator.toScaledPrice(price));
+        return priceState;
+    }
+}
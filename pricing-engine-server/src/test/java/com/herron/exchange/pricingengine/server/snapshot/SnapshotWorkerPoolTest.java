@@ -0,0 +1,56 @@
+package com.herron.exchange.pricingengine.server.snapshot;
+
+import com.herron.exchange.pricingengine.server.snapshot.queue.WaitStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SnapshotWorkerPoolTest {
+
+    @Test
+    void test_product_is_always_assigned_to_the_same_worker() {
+        var pool = createPool(4);
+        var otherPool = createPool(4);
+        for (int i = 0; i < 1000; i++) {
+            var productId = "product-" + i;
+            int workerIndex = pool.getWorkerIndex(productId);
+            assertEquals(workerIndex, pool.getWorkerIndex(productId));
+            assertEquals(workerIndex, otherPool.getWorkerIndex(productId));
+        }
+    }
+
+    @Test
+    void test_products_are_spread_over_all_workers() {
+        var pool = createPool(4);
+        Set<Integer> workerIndexes = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            workerIndexes.add(pool.getWorkerIndex("product-" + i));
+        }
+        assertEquals(Set.of(0, 1, 2, 3), workerIndexes);
+
+        var distribution = pool.getProductDistribution();
+        assertEquals(4, distribution.size());
+        assertEquals(1000, distribution.values().stream().mapToInt(Integer::intValue).sum());
+        distribution.values().forEach(nrOfProducts -> assertEquals(250, nrOfProducts, 100));
+    }
+
+    @Test
+    void test_adding_a_worker_only_moves_products_to_the_new_worker() {
+        var pool = createPool(4);
+        var grownPool = createPool(5);
+        for (int i = 0; i < 1000; i++) {
+            var productId = "product-" + i;
+            int newWorkerIndex = grownPool.getWorkerIndex(productId);
+            if (newWorkerIndex != 4) {
+                assertEquals(pool.getWorkerIndex(productId), newWorkerIndex);
+            }
+        }
+    }
+
+    private static SnapshotWorkerPool createPool(int nrOfWorkers) {
+        return new SnapshotWorkerPool(nrOfWorkers, null, null, null, null, null, 16, WaitStrategy.YIELD, false);
+    }
+}
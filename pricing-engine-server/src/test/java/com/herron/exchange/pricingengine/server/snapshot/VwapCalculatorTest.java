@@ -0,0 +1,34 @@
+package com.herron.exchange.pricingengine.server.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import static com.herron.exchange.pricingengine.server.snapshot.PriceSnapshotCalculator.PRICE_SCALE;
+import static com.herron.exchange.pricingengine.server.snapshot.PriceSnapshotCalculator.VOLUME_SCALE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VwapCalculatorTest {
+
+    @Test
+    void test_large_quantity_times_price_does_not_overflow() {
+        var calculator = new VwapCalculator();
+        long scaledPrice = 1_000_000 * PRICE_SCALE;
+        long scaledVolume = 1_000_000_000 * VOLUME_SCALE;
+        for (int i = 0; i < 200; i++) {
+            assertEquals(scaledPrice, calculator.updateAndGetVwap(scaledPrice, scaledVolume));
+        }
+        assertTrue(200.0 * scaledVolume > Long.MAX_VALUE);
+
+        long vwap = calculator.updateAndGetVwap(3 * scaledPrice, 2 * scaledVolume);
+        assertEquals(1_019_802 * PRICE_SCALE, vwap, PRICE_SCALE);
+    }
+
+    @Test
+    void test_reset_starts_new_session() {
+        var calculator = new VwapCalculator();
+        calculator.updateAndGetVwap(10 * PRICE_SCALE, VOLUME_SCALE);
+        calculator.reset();
+        assertTrue(calculator.isEmpty());
+        assertEquals(0, calculator.getVwap());
+        assertEquals(20 * PRICE_SCALE, calculator.updateAndGetVwap(20 * PRICE_SCALE, VOLUME_SCALE));
+    }
+}
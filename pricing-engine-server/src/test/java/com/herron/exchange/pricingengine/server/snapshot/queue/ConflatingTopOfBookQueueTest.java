@@ -0,0 +1,84 @@
+package com.herron.exchange.pricingengine.server.snapshot.queue;
+
+import com.herron.exchange.common.api.common.enums.OrderSideEnum;
+import com.herron.exchange.common.api.common.enums.QuoteTypeEnum;
+import com.herron.exchange.common.api.common.messages.common.Price;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.trading.ImmutablePriceQuote;
+import com.herron.exchange.common.api.common.messages.trading.ImmutableTopOfBook;
+import com.herron.exchange.common.api.common.messages.trading.TopOfBook;
+import org.junit.jupiter.api.Test;
+
+import static com.herron.exchange.common.api.common.enums.EventType.SYSTEM;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.ASK;
+import static com.herron.exchange.common.api.common.enums.OrderSideEnum.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflatingTopOfBookQueueTest {
+
+    @Test
+    void test_quotes_for_same_orderbook_are_conflated() {
+        var queue = new ConflatingTopOfBookQueue(16);
+        queue.offer(createQuote("ob1", 1, 10, BID));
+        queue.offer(createQuote("ob1", 2, 11, BID));
+        queue.offer(createQuote("ob1", 3, 12, BID));
+
+        assertEquals(1, queue.size());
+        assertEquals(2, queue.getConflatedUpdates());
+        assertEquals(Price.create(12), queue.poll().bidQuote().price());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void test_different_orderbooks_are_not_conflated() {
+        var queue = new ConflatingTopOfBookQueue(16);
+        queue.offer(createQuote("ob1", 1, 10, BID));
+        queue.offer(createQuote("ob2", 2, 11, BID));
+
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.getConflatedUpdates());
+        assertEquals("ob1", queue.poll().orderbookId());
+        assertEquals("ob2", queue.poll().orderbookId());
+    }
+
+    @Test
+    void test_one_sided_update_keeps_pending_other_side() {
+        var queue = new ConflatingTopOfBookQueue(16);
+        queue.offer(createQuote("ob1", 1, 10, BID));
+        queue.offer(createQuote("ob1", 2, 12, ASK));
+
+        var topOfBook = queue.poll();
+        assertEquals(Price.create(10), topOfBook.bidQuote().price());
+        assertEquals(Price.create(12), topOfBook.askQuote().price());
+    }
+
+    @Test
+    void test_quote_after_consumption_is_queued_again() {
+        var queue = new ConflatingTopOfBookQueue(16);
+        queue.offer(createQuote("ob1", 1, 10, BID));
+        assertNotNull(queue.poll());
+        queue.offer(createQuote("ob1", 2, 11, BID));
+
+        assertEquals(1, queue.size());
+        assertEquals(Price.create(11), queue.peek().bidQuote().price());
+    }
+
+    private TopOfBook createQuote(String orderbookId, long timeOfEventMs, double price, OrderSideEnum side) {
+        var quote = ImmutablePriceQuote.builder()
+                .quoteType(side == BID ? QuoteTypeEnum.BID_PRICE : QuoteTypeEnum.ASK_PRICE)
+                .timeOfEvent(Timestamp.from(timeOfEventMs))
+                .orderbookId(orderbookId)
+                .eventType(SYSTEM)
+                .price(Price.create(price))
+                .build();
+
+        var builder = ImmutableTopOfBook.builder()
+                .timeOfEvent(Timestamp.from(timeOfEventMs))
+                .orderbookId(orderbookId)
+                .eventType(SYSTEM);
+
+        return side == BID
+                ? builder.bidQuote(quote).build()
+                : builder.askQuote(quote).build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.herron.exchange.pricingengine.server.snapshot.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpscRingBufferTest {
+
+    @Test
+    void test_capacity_rounded_to_power_of_two() {
+        var ringBuffer = new SpscRingBuffer<Integer>(5);
+        assertEquals(8, ringBuffer.capacity());
+    }
+
+    @Test
+    void test_offer_fails_when_full() {
+        var ringBuffer = new SpscRingBuffer<Integer>(2);
+        assertTrue(ringBuffer.offer(1));
+        assertTrue(ringBuffer.offer(2));
+        assertFalse(ringBuffer.offer(3));
+        assertEquals(1, (int) ringBuffer.poll());
+        assertTrue(ringBuffer.offer(3));
+        assertEquals(2, ringBuffer.size());
+    }
+
+    @Test
+    void test_peek_does_not_consume() {
+        var ringBuffer = new SpscRingBuffer<Integer>(4);
+        assertNull(ringBuffer.peek());
+        ringBuffer.offer(1);
+        assertEquals(1, (int) ringBuffer.peek());
+        assertEquals(1, (int) ringBuffer.poll());
+        assertNull(ringBuffer.poll());
+        assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    void test_order_preserved_across_threads() throws InterruptedException {
+        int nrOfElements = 100_000;
+        var ringBuffer = new SpscRingBuffer<Integer>(64);
+        var producer = new Thread(() -> {
+            for (int i = 0; i < nrOfElements; i++) {
+                ringBuffer.put(i, WaitStrategy.YIELD);
+            }
+        });
+        producer.start();
+
+        List<Integer> consumed = new ArrayList<>(nrOfElements);
+        int idleCounter = 0;
+        while (consumed.size() < nrOfElements) {
+            var element = ringBuffer.poll();
+            if (element == null) {
+                idleCounter = WaitStrategy.PARK.idle(idleCounter);
+                continue;
+            }
+            idleCounter = 0;
+            consumed.add(element);
+        }
+        producer.join();
+
+        for (int i = 0; i < nrOfElements; i++) {
+            assertEquals(i, (int) consumed.get(i));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.herron.exchange.pricingengine.server.snapshot.timer;
+
+import com.herron.exchange.pricingengine.server.snapshot.queue.SpscRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedWheelTimerTest {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int WHEEL_SIZE = 8;
+    private final List<String> expired = new ArrayList<>();
+    private long nowNanos = 0;
+    private final HashedWheelTimer timer = new HashedWheelTimer("timer", 1, TimeUnit.MILLISECONDS, WHEEL_SIZE, () -> nowNanos);
+    private int nrOfTicks = 0;
+
+    @Test
+    void test_deadline_is_rounded_up_to_the_next_tick() {
+        timer.schedule(() -> expired.add("now"), 0, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> expired.add("between-ticks"), 1500, TimeUnit.MICROSECONDS);
+        timer.schedule(() -> expired.add("on-tick"), 2, TimeUnit.MILLISECONDS);
+
+        tick();
+        assertEquals(List.of("now"), expired);
+        tick();
+        assertEquals(List.of("now"), expired);
+        tick();
+        assertEquals(List.of("now", "between-ticks", "on-tick"), expired);
+    }
+
+    @Test
+    void test_timeout_beyond_the_wheel_waits_for_its_round() {
+        timer.schedule(() -> expired.add("second-round"), 2L * WHEEL_SIZE + 4, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> expired.add("first-round"), 4, TimeUnit.MILLISECONDS);
+
+        tickUntil(2 * WHEEL_SIZE + 4);
+        assertEquals(List.of("first-round"), expired);
+        tick();
+        assertEquals(List.of("first-round", "second-round"), expired);
+    }
+
+    @Test
+    void test_task_rescheduled_onto_a_later_round() {
+        timer.schedule(() -> {
+            expired.add("first");
+            timer.schedule(() -> expired.add("rescheduled"), WHEEL_SIZE + 2, TimeUnit.MILLISECONDS);
+        }, 3, TimeUnit.MILLISECONDS);
+
+        tickUntil(4);
+        assertEquals(List.of("first"), expired);
+        tickUntil(4 + WHEEL_SIZE + 2);
+        assertEquals(List.of("first"), expired);
+        tick();
+        assertEquals(List.of("first", "rescheduled"), expired);
+    }
+
+    @Test
+    void test_stopped_timer_drops_pending_timeouts() throws InterruptedException {
+        var runningTimer = new HashedWheelTimer("timer", 1, TimeUnit.MILLISECONDS, WHEEL_SIZE);
+        AtomicBoolean hasRun = new AtomicBoolean(false);
+        runningTimer.init();
+        runningTimer.schedule(() -> hasRun.set(true), 50, TimeUnit.MILLISECONDS);
+        runningTimer.stop();
+
+        Thread.sleep(200);
+        assertFalse(hasRun.get());
+    }
+
+    @Test
+    void test_offer_to_full_queue_is_retried_on_next_tick() {
+        var flushQueue = new SpscRingBuffer<Integer>(2);
+        assertTrue(flushQueue.offer(1));
+        assertTrue(flushQueue.offer(2));
+        AtomicInteger delayedOffers = new AtomicInteger();
+        var offer = new Runnable() {
+            @Override
+            public void run() {
+                if (!flushQueue.offer(3)) {
+                    delayedOffers.incrementAndGet();
+                    timer.schedule(this, 0, TimeUnit.MILLISECONDS);
+                }
+            }
+        };
+        timer.schedule(offer, 0, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> expired.add("other"), 1, TimeUnit.MILLISECONDS);
+
+        tick();
+        assertEquals(1, delayedOffers.get());
+        tick();
+        assertEquals(2, delayedOffers.get());
+        assertEquals(List.of("other"), expired);
+
+        assertEquals(1, (int) flushQueue.poll());
+        tick();
+        tick();
+        assertEquals(2, delayedOffers.get());
+        assertEquals(2, (int) flushQueue.poll());
+        assertEquals(3, (int) flushQueue.poll());
+    }
+
+    /**
+     * Moves the clock to the end of the next tick and runs it, as the timer thread does.
+     */
+    private void tick() {
+        nowNanos = (nrOfTicks + 1) * TICK_NANOS;
+        timer.tick();
+        nrOfTicks++;
+    }
+
+    private void tickUntil(int tick) {
+        while (nrOfTicks < tick) {
+            tick();
+        }
+    }
+}
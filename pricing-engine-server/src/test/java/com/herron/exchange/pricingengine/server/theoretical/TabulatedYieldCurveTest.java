@@ -0,0 +1,37 @@
+package com.herron.exchange.pricingengine.server.theoretical;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TabulatedYieldCurveTest {
+    private static final DoubleUnaryOperator CURVE = ttm -> 0.01 + 0.03 * (1 - Math.exp(-ttm / 3)) + 0.002 * Math.sin(ttm);
+
+    @Test
+    void test_daily_grid_is_close_to_exact_curve() {
+        var curve = TabulatedYieldCurve.tabulate(CURVE, 30, 365);
+        var random = new Random(11);
+        for (int i = 0; i < 10_000; i++) {
+            double ttm = random.nextDouble() * 30;
+            assertEquals(CURVE.applyAsDouble(ttm), curve.getYield(ttm), 1e-7);
+        }
+    }
+
+    @Test
+    void test_exact_at_grid_points_and_outside_grid() {
+        var curve = TabulatedYieldCurve.tabulate(CURVE, 10, 12);
+        assertEquals(CURVE.applyAsDouble(0), curve.getYield(0), 1e-15);
+        assertEquals(CURVE.applyAsDouble(0.5), curve.getYield(0.5), 1e-15);
+        assertEquals(CURVE.applyAsDouble(10), curve.getYield(10), 1e-15);
+        assertEquals(CURVE.applyAsDouble(15), curve.getYield(15), 1e-15);
+    }
+
+    @Test
+    void test_invalid_grid() {
+        assertThrows(IllegalArgumentException.class, () -> TabulatedYieldCurve.tabulate(CURVE, 0, 365));
+    }
+}
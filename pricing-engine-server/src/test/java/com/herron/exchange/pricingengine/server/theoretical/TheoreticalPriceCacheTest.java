@@ -0,0 +1,71 @@
+package com.herron.exchange.pricingengine.server.theoretical;
+
+import com.herron.exchange.common.api.common.api.pricing.PriceModelResult;
+import com.herron.exchange.common.api.common.api.referencedata.instruments.Instrument;
+import com.herron.exchange.common.api.common.messages.common.Timestamp;
+import com.herron.exchange.common.api.common.messages.pricing.FailedPriceModelResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TheoreticalPriceCacheTest {
+    private final CountingPriceCalculator priceCalculator = new CountingPriceCalculator();
+    private long nowMs = 0;
+
+    @Test
+    void test_cached_price_is_reused_while_inputs_are_unchanged() {
+        var cache = new TheoreticalPriceCache(null, priceCalculator, Duration.ofSeconds(1), () -> nowMs);
+        var result = cache.getPrice();
+        nowMs = 999;
+        assertSame(result, cache.getPrice());
+        assertEquals(1, priceCalculator.nrOfCalculations);
+        assertEquals(1, priceCalculator.getMetrics().getCacheHits());
+        assertEquals(1, priceCalculator.getMetrics().getCacheMisses());
+    }
+
+    @Test
+    void test_input_version_change_invalidates_cached_price() {
+        var cache = new TheoreticalPriceCache(null, priceCalculator, Duration.ofSeconds(1), () -> nowMs);
+        var result = cache.getPrice();
+        priceCalculator.inputVersion++;
+        assertNotSame(result, cache.getPrice());
+        assertEquals(2, priceCalculator.nrOfCalculations);
+        assertEquals(0, priceCalculator.getMetrics().getCacheHits());
+    }
+
+    @Test
+    void test_cached_price_is_recalculated_once_stale() {
+        var cache = new TheoreticalPriceCache(null, priceCalculator, Duration.ofSeconds(1), () -> nowMs);
+        cache.getPrice();
+        nowMs = 1_000;
+        cache.getPrice();
+        assertEquals(2, priceCalculator.nrOfCalculations);
+        nowMs = 1_500;
+        cache.getPrice();
+        assertEquals(2, priceCalculator.nrOfCalculations);
+        assertEquals(1, priceCalculator.getMetrics().getCacheHits());
+        assertEquals(2, priceCalculator.getMetrics().getCacheMisses());
+    }
+
+    private static class CountingPriceCalculator extends TheoreticalPriceCalculator {
+        private long inputVersion = 0;
+        private int nrOfCalculations = 0;
+
+        private CountingPriceCalculator() {
+            super(null, null, null);
+        }
+
+        @Override
+        public PriceModelResult calculatePrice(Instrument instrument, Timestamp valuationTime) {
+            nrOfCalculations++;
+            return FailedPriceModelResult.createFailedResult("Calculation " + nrOfCalculations);
+        }
+
+        @Override
+        public long getInputVersion(Instrument instrument) {
+            return inputVersion;
+        }
+    }
+}
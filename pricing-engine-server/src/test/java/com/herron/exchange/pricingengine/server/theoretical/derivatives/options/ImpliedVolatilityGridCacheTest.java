@@ -0,0 +1,89 @@
+package com.herron.exchange.pricingengine.server.theoretical.derivatives.options;
+
+import com.herron.exchange.common.api.common.messages.marketdata.entries.MarketDataImpliedVolatilitySurface;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleBinaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImpliedVolatilityGridCacheTest {
+    private static final ImpliedVolatilityGridSettings SETTINGS = new ImpliedVolatilityGridSettings(true, 32, 64, 0.001);
+    private final AtomicInteger nrOfEvaluations = new AtomicInteger();
+    private final DoubleBinaryOperator smoothSurface = (ttm, strike) -> {
+        nrOfEvaluations.incrementAndGet();
+        double moneyness = Math.log(strike / 100);
+        return 0.2 + 0.05 * Math.sqrt(ttm) - 0.1 * moneyness + 0.3 * moneyness * moneyness / (1 + ttm);
+    };
+    private final ImpliedVolatilityGridCache cache = new ImpliedVolatilityGridCache(SETTINGS);
+
+    @Test
+    void test_grid_covers_chain_range_of_its_version_only() {
+        var surface = createSurface();
+        assertNull(cache.getGrid(surface));
+
+        cache.tabulate(surface, smoothSurface, 0.1, 2, 80, 120);
+        var grid = cache.getGrid(surface);
+        assertNotNull(grid);
+        assertTrue(grid.contains(0.1 - 0.5 / 365, 80));
+        assertTrue(grid.contains(2, 120));
+        assertFalse(grid.contains(2.1, 100));
+        assertFalse(grid.contains(1, 121));
+        assertEquals(smoothSurface.applyAsDouble(1, 100), grid.getImpliedVolatility(1, 100), SETTINGS.tolerance());
+
+        assertNull(cache.getGrid(createSurface()));
+    }
+
+    @Test
+    void test_version_is_only_tabulated_once() {
+        var surface = createSurface();
+        cache.tabulate(surface, smoothSurface, 0.1, 2, 80, 120);
+        var grid = cache.getGrid(surface);
+        int evaluations = nrOfEvaluations.get();
+
+        cache.tabulate(surface, smoothSurface, 0.05, 3, 60, 140);
+        assertSame(grid, cache.getGrid(surface));
+        assertEquals(evaluations, nrOfEvaluations.get());
+
+        var nextSurface = createSurface();
+        cache.tabulate(nextSurface, smoothSurface, 0.05, 3, 60, 140);
+        assertNotSame(grid, cache.getGrid(nextSurface));
+        assertNull(cache.getGrid(surface));
+    }
+
+    @Test
+    void test_failed_tolerance_check_is_remembered_for_the_version() {
+        var surface = createSurface();
+        AtomicInteger nrOfKinkedEvaluations = new AtomicInteger();
+        DoubleBinaryOperator kinkedSurface = (ttm, strike) -> {
+            nrOfKinkedEvaluations.incrementAndGet();
+            return 0.2 + Math.abs(Math.sin(strike));
+        };
+        cache.tabulate(surface, kinkedSurface, 0.1, 2, 80, 120);
+        assertNull(cache.getGrid(surface));
+        int evaluations = nrOfKinkedEvaluations.get();
+
+        cache.tabulate(surface, kinkedSurface, 0.1, 2, 80, 120);
+        assertNull(cache.getGrid(surface));
+        assertEquals(evaluations, nrOfKinkedEvaluations.get());
+
+        var nextSurface = createSurface();
+        cache.tabulate(nextSurface, smoothSurface, 0.1, 2, 80, 120);
+        assertNotNull(cache.getGrid(nextSurface));
+    }
+
+    private static MarketDataImpliedVolatilitySurface createSurface() {
+        return (MarketDataImpliedVolatilitySurface) Proxy.newProxyInstance(
+                MarketDataImpliedVolatilitySurface.class.getClassLoader(),
+                new Class<?>[]{MarketDataImpliedVolatilitySurface.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "surface";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+}
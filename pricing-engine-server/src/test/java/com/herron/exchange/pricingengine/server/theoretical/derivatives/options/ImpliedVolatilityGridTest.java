@@ -0,0 +1,54 @@
+package com.herron.exchange.pricingengine.server.theoretical.derivatives.options;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.DoubleBinaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImpliedVolatilityGridTest {
+    private static final double TOLERANCE = 0.0005;
+    private static final DoubleBinaryOperator SURFACE = (ttm, strike) -> {
+        double moneyness = Math.log(strike / 100);
+        return 0.2 + 0.05 * Math.sqrt(ttm) - 0.1 * moneyness + 0.3 * moneyness * moneyness / (1 + ttm);
+    };
+
+    @Test
+    void test_grid_is_within_tolerance_of_exact_surface() {
+        var grid = ImpliedVolatilityGrid.tabulate(SURFACE, 0.05, 2, 64, 60, 140, 128);
+        assertTrue(grid.getMaxError(SURFACE) <= TOLERANCE);
+
+        var random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            double ttm = 0.05 + random.nextDouble() * 1.95;
+            double strike = 60 + random.nextDouble() * 80;
+            assertTrue(grid.contains(ttm, strike));
+            assertEquals(SURFACE.applyAsDouble(ttm, strike), grid.getImpliedVolatility(ttm, strike), TOLERANCE);
+        }
+    }
+
+    @Test
+    void test_grid_is_exact_at_grid_points_and_edges() {
+        var grid = ImpliedVolatilityGrid.tabulate(SURFACE, 0, 1, 5, 80, 120, 5);
+        assertEquals(SURFACE.applyAsDouble(0.25, 90), grid.getImpliedVolatility(0.25, 90), 1e-12);
+        assertEquals(SURFACE.applyAsDouble(1, 120), grid.getImpliedVolatility(1, 120), 1e-12);
+        assertEquals(SURFACE.applyAsDouble(0, 80), grid.getImpliedVolatility(0, 80), 1e-12);
+        assertFalse(grid.contains(1.01, 100));
+        assertFalse(grid.contains(0.5, 79));
+    }
+
+    @Test
+    void test_coarse_grid_exceeds_tolerance() {
+        var grid = ImpliedVolatilityGrid.tabulate(SURFACE, 0.05, 2, 2, 60, 140, 2);
+        assertTrue(grid.getMaxError(SURFACE) > TOLERANCE);
+    }
+
+    @Test
+    void test_single_strike_grid() {
+        var grid = ImpliedVolatilityGrid.tabulate(SURFACE, 0, 1, 16, 100, 100, 16);
+        assertTrue(grid.contains(0.5, 100));
+        assertFalse(grid.contains(0.5, 100.5));
+        assertEquals(SURFACE.applyAsDouble(0.5, 100), grid.getImpliedVolatility(0.5, 100), TOLERANCE);
+    }
+}